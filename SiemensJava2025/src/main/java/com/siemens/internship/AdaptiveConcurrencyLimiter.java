@@ -0,0 +1,123 @@
+package com.siemens.internship;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * AIMD limit on the number of batch items processed at the same time.
+ *
+ * Every finished item feeds back its latency: a fast success while at least half the limit is
+ * in use grows the limit by one, a failure or a latency above
+ * {@code items.batch.adaptive-latency-threshold} multiplies it by
+ * {@code items.batch.adaptive-backoff-ratio}. The limit therefore climbs while the downstream and
+ * the database keep up and backs off as soon as they saturate.
+ *
+ * The current limit, the in-flight count and every increase/decrease decision are exported as
+ * {@code items.batch.limiter.*} metrics.
+ */
+@Component
+public class AdaptiveConcurrencyLimiter {
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition permitAvailable = lock.newCondition();
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final double backoffRatio;
+    private final Counter increases;
+    private final Counter decreases;
+
+    private double limit;
+    private int inFlight;
+
+    public AdaptiveConcurrencyLimiter(BatchProperties batchProperties, MeterRegistry registry) {
+        minLimit = Math.max(batchProperties.getAdaptiveMinLimit(), 1);
+        maxLimit = Math.max(batchProperties.getAdaptiveMaxLimit(), minLimit);
+        limit = Math.min(Math.max(batchProperties.getAdaptiveInitialLimit(), minLimit), maxLimit);
+        latencyThresholdNanos = batchProperties.getAdaptiveLatencyThreshold().toNanos();
+        backoffRatio = batchProperties.getAdaptiveBackoffRatio();
+
+        Gauge.builder("items.batch.limiter.limit", this::getLimit)
+                .description("Current adaptive concurrency limit of the batch executor")
+                .register(registry);
+        Gauge.builder("items.batch.limiter.in-flight", this::getInFlight)
+                .description("Batch items currently holding a limiter permit")
+                .register(registry);
+        increases = decisionCounter(registry, "increase");
+        decreases = decisionCounter(registry, "decrease");
+    }
+
+    private static Counter decisionCounter(MeterRegistry registry, String decision) {
+        return Counter.builder("items.batch.limiter.decisions")
+                .description("Adjustments made to the adaptive concurrency limit")
+                .tag("decision", decision)
+                .register(registry);
+    }
+
+    /**
+     * Blocks until the number of items in flight is below the current limit.
+     */
+    public void acquire() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (inFlight >= (int) limit) {
+                permitAvailable.await();
+            }
+            inFlight++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns a permit and adjusts the limit from the outcome of the item that held it.
+     *
+     * @param latencyNanos time the item took to process
+     * @param success      false if the item failed
+     */
+    public void release(long latencyNanos, boolean success) {
+        lock.lock();
+        try {
+            boolean saturated = inFlight * 2 >= limit;
+            inFlight--;
+            if (!success || latencyNanos > latencyThresholdNanos) {
+                double reduced = Math.max(minLimit, limit * backoffRatio);
+                if (reduced < limit) {
+                    limit = reduced;
+                    decreases.increment();
+                }
+            } else if (saturated && limit < maxLimit) {
+                limit = Math.min(maxLimit, limit + 1);
+                increases.increment();
+            }
+            permitAvailable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getLimit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+}
@@ -0,0 +1,125 @@
+package com.siemens.internship;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * State of one asynchronous batch run started through POST /api/items/batch-process.
+ *
+ * Only the ids of processed items are kept, results are loaded page by page on request.
+ * The ids are stored as primitives in fixed-size blocks, so a retained job costs 8 bytes per
+ * processed item, about 64 MB for a run over eight million rows, instead of a boxed Long and
+ * a list slot each.
+ */
+@Getter
+public class BatchJob implements BatchListener {
+
+    private static final int RESULT_BLOCK_SIZE = 4096;
+
+    public enum State {
+        RUNNING,
+        COMPLETED,
+        /** Finished, but some items were dead-lettered. */
+        PARTIALLY_COMPLETED,
+        FAILED
+    }
+
+    private final String id = UUID.randomUUID().toString();
+    private final long total;
+    private final Instant startedAt = Instant.now();
+    private final long startNanos = System.nanoTime();
+    private final CompletableFuture<Void> completion = new CompletableFuture<>();
+
+    private volatile State state = State.RUNNING;
+    private volatile Instant finishedAt;
+    private volatile String error;
+
+    private final AtomicLong processed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong retried = new AtomicLong();
+
+    // Guarded by resultBlocks
+    @Getter(AccessLevel.NONE)
+    private final List<long[]> resultBlocks = new ArrayList<>();
+    @Getter(AccessLevel.NONE)
+    private long resultCount;
+
+    public BatchJob(long total) {
+        this.total = total;
+    }
+
+    @Override
+    public void onProcessed(Item item) {
+        synchronized (resultBlocks) {
+            int offset = (int) (resultCount % RESULT_BLOCK_SIZE);
+            if (offset == 0) {
+                resultBlocks.add(new long[RESULT_BLOCK_SIZE]);
+            }
+            resultBlocks.get(resultBlocks.size() - 1)[offset] = item.getId();
+            resultCount++;
+        }
+        processed.incrementAndGet();
+    }
+
+    @Override
+    public void onFailed(Long id, Throwable error) {
+        failed.incrementAndGet();
+    }
+
+    @Override
+    public void onRetry(Long id, int attempt, Throwable error) {
+        retried.incrementAndGet();
+    }
+
+    void finish(Throwable failure) {
+        error = failure == null ? null : failure.getMessage();
+        finishedAt = Instant.now();
+        if (failure != null) {
+            state = State.FAILED;
+        } else {
+            state = failed.get() > 0 ? State.PARTIALLY_COMPLETED : State.COMPLETED;
+        }
+        completion.complete(null);
+    }
+
+    public boolean isFinished() {
+        return state != State.RUNNING;
+    }
+
+    /**
+     * Ids of the processed items in completion order, for the requested page.
+     */
+    public List<Long> resultIds(int page, int size) {
+        synchronized (resultBlocks) {
+            long from = (long) page * size;
+            long to = Math.min(from + size, resultCount);
+            List<Long> ids = new ArrayList<>((int) Math.max(to - from, 0));
+            for (long i = from; i < to; i++) {
+                ids.add(resultBlocks.get((int) (i / RESULT_BLOCK_SIZE))[(int) (i % RESULT_BLOCK_SIZE)]);
+            }
+            return ids;
+        }
+    }
+
+    /**
+     * Snapshot of the job's progress, with throughput and ETA derived from the items done so far.
+     */
+    public BatchJobStatus toStatus() {
+        long done = processed.get() + failed.get();
+        double elapsedSeconds = Math.max(System.nanoTime() - startNanos, 1) / 1_000_000_000d;
+        double itemsPerSecond = done / elapsedSeconds;
+        Long etaSeconds = null;
+        if (state == State.RUNNING && itemsPerSecond > 0) {
+            etaSeconds = (long) Math.ceil(Math.max(total - done, 0) / itemsPerSecond);
+        }
+        return new BatchJobStatus(id, state, total, processed.get(), failed.get(), retried.get(),
+                itemsPerSecond, etaSeconds, startedAt, finishedAt, error);
+    }
+}
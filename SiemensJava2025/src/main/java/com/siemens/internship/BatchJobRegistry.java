@@ -0,0 +1,68 @@
+package com.siemens.internship;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Bounded, in-memory registry of batch jobs.
+ *
+ * Finished jobs are dropped once they are older than {@code items.batch.finished-job-ttl}, or
+ * oldest first when {@code items.batch.max-retained-jobs} is reached. Running jobs are never
+ * evicted; when the registry is full of running jobs new ones are rejected.
+ */
+@Component
+public class BatchJobRegistry {
+
+    @Autowired
+    private BatchProperties batchProperties;
+
+    // Insertion order doubles as age order for eviction
+    private final Map<String, BatchJob> jobs = new LinkedHashMap<>();
+
+    /**
+     * Creates and registers a new running job.
+     *
+     * @throws RejectedExecutionException if every retained slot holds a running job
+     */
+    public synchronized BatchJob register(long total) {
+        evictExpired();
+        if (jobs.size() >= batchProperties.getMaxRetainedJobs() && !evictOldestFinished()) {
+            throw new RejectedExecutionException("Too many batch jobs are running");
+        }
+        BatchJob job = new BatchJob(total);
+        jobs.put(job.getId(), job);
+        return job;
+    }
+
+    public synchronized Optional<BatchJob> find(String jobId) {
+        evictExpired();
+        return Optional.ofNullable(jobs.get(jobId));
+    }
+
+    public synchronized int size() {
+        return jobs.size();
+    }
+
+    private void evictExpired() {
+        Instant cutoff = Instant.now().minus(batchProperties.getFinishedJobTtl());
+        jobs.values().removeIf(job -> job.isFinished() && job.getFinishedAt().isBefore(cutoff));
+    }
+
+    private boolean evictOldestFinished() {
+        Iterator<BatchJob> iterator = jobs.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().isFinished()) {
+                iterator.remove();
+                return true;
+            }
+        }
+        return false;
+    }
+}
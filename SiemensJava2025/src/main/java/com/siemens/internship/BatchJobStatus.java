@@ -0,0 +1,24 @@
+package com.siemens.internship;
+
+import java.time.Instant;
+
+/**
+ * Progress view of a {@link BatchJob} returned by the batch-process endpoints.
+ *
+ * @param failed     items that failed every attempt and were dead-lettered
+ * @param retried    retry attempts made so far, across all items
+ * @param etaSeconds estimated time to completion, null once the job has finished
+ */
+public record BatchJobStatus(
+        String jobId,
+        BatchJob.State state,
+        long total,
+        long processed,
+        long failed,
+        long retried,
+        double itemsPerSecond,
+        Long etaSeconds,
+        Instant startedAt,
+        Instant finishedAt,
+        String error) {
+}
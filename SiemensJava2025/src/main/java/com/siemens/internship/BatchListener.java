@@ -0,0 +1,24 @@
+package com.siemens.internship;
+
+/**
+ * Receives the outcome of every item of a batch run as soon as it is known.
+ * Implementations are called from several worker threads and must be thread-safe.
+ * Throwing from a callback aborts the run.
+ */
+@FunctionalInterface
+public interface BatchListener {
+
+    void onProcessed(Item item);
+
+    /**
+     * Called once an item has failed its last attempt and been dead-lettered.
+     */
+    default void onFailed(Long id, Throwable error) {
+    }
+
+    /**
+     * Called before an item is retried after a failed attempt.
+     */
+    default void onRetry(Long id, int attempt, Throwable error) {
+    }
+}
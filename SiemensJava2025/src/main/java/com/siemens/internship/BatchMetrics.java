@@ -0,0 +1,78 @@
+package com.siemens.internship;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.Getter;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Micrometer instruments for the per-item batch path, exported through /actuator/prometheus.
+ *
+ * Phase timers publish percentile histograms so latency SLOs can be computed server-side.
+ * Queue depth and active workers are tracked by the engine itself, which keeps them meaningful
+ * for both the fixed pool and the virtual-thread executor.
+ */
+@Getter
+@Component
+public class BatchMetrics {
+
+    private final Timer findTimer;
+    private final Timer workTimer;
+    private final Timer saveTimer;
+    private final Counter processedCounter;
+    private final Counter failedCounter;
+    private final Counter retriedCounter;
+
+    // Submitted to the executor and not yet finished
+    private final AtomicInteger submitted = new AtomicInteger();
+    // Currently running on a worker thread
+    private final AtomicInteger active = new AtomicInteger();
+
+    public BatchMetrics(MeterRegistry registry) {
+        findTimer = phaseTimer(registry, "find");
+        workTimer = phaseTimer(registry, "work");
+        saveTimer = phaseTimer(registry, "save");
+        processedCounter = Counter.builder("items.batch.items")
+                .description("Batch items by outcome")
+                .tag("outcome", "processed")
+                .register(registry);
+        failedCounter = Counter.builder("items.batch.items")
+                .description("Batch items by outcome")
+                .tag("outcome", "failed")
+                .register(registry);
+        retriedCounter = Counter.builder("items.batch.retries")
+                .description("Retry attempts made after a failed item attempt")
+                .register(registry);
+        Gauge.builder("items.batch.executor.queued", () -> Math.max(submitted.get() - active.get(), 0))
+                .description("Items submitted to the batch executor and waiting for a worker")
+                .register(registry);
+        Gauge.builder("items.batch.executor.active", active::get)
+                .description("Items currently being processed by a worker")
+                .register(registry);
+    }
+
+    private static Timer phaseTimer(MeterRegistry registry, String phase) {
+        return Timer.builder("items.batch.phase")
+                .description("Time spent in each phase of processing one batch item")
+                .tag("phase", phase)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    void taskSubmitted() {
+        submitted.incrementAndGet();
+    }
+
+    void taskStarted() {
+        active.incrementAndGet();
+    }
+
+    void taskFinished() {
+        active.decrementAndGet();
+        submitted.decrementAndGet();
+    }
+}
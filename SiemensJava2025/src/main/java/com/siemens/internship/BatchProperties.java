@@ -0,0 +1,117 @@
+package com.siemens.internship;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Tuning knobs for the batch processing paths, bound from {@code items.batch.*}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "items.batch")
+public class BatchProperties {
+
+    /**
+     * Number of items read, updated and written back per transaction in chunked mode.
+     */
+    private int chunkSize = 500;
+
+    /**
+     * Upper bound on items being processed at the same time by the streaming batch.
+     */
+    private int maxInFlight = 256;
+
+    /**
+     * Number of ids fetched per keyset query when scanning the table for per-item processing.
+     */
+    private int pageSize = 1000;
+
+    /**
+     * Thread model used for per-item processing.
+     */
+    private ExecutorMode executor = ExecutorMode.FIXED;
+
+    /**
+     * Maximum number of repository calls running at the same time across all workers.
+     * Should not exceed the connection pool size.
+     */
+    private int maxDbConcurrency = 10;
+
+    /**
+     * Duration of the simulated downstream call made for every item in the per-item path.
+     */
+    private long simulatedWorkMillis = 100;
+
+    /**
+     * Attempts per item, including the first one, before it is moved to the dead-letter table.
+     */
+    private int retryMaxAttempts = 3;
+
+    /**
+     * Backoff ceiling before the first retry; doubles with every further attempt.
+     * The actual pause is drawn uniformly below the ceiling so retries do not synchronise.
+     */
+    private Duration retryInitialBackoff = Duration.ofMillis(100);
+
+    /**
+     * Upper bound for the backoff ceiling.
+     */
+    private Duration retryMaxBackoff = Duration.ofSeconds(5);
+
+    /**
+     * Times an item or chunk is re-read and reapplied after losing an optimistic-lock race,
+     * before the conflict is treated as a failure.
+     */
+    private int conflictMaxRetries = 3;
+
+    /**
+     * Lets {@link AdaptiveConcurrencyLimiter} decide how many items run at once instead of the
+     * executor size. The fixed pool is then sized to {@code adaptive-max-limit}.
+     */
+    private boolean adaptiveConcurrencyEnabled = false;
+
+    /**
+     * Concurrency limit used before any latency has been observed.
+     */
+    private int adaptiveInitialLimit = 8;
+
+    /**
+     * Lower bound of the adaptive limit.
+     */
+    private int adaptiveMinLimit = 1;
+
+    /**
+     * Upper bound of the adaptive limit.
+     */
+    private int adaptiveMaxLimit = 256;
+
+    /**
+     * Item latency above which the adaptive limit is reduced.
+     */
+    private Duration adaptiveLatencyThreshold = Duration.ofSeconds(1);
+
+    /**
+     * Factor applied to the adaptive limit on a slow or failed item.
+     */
+    private double adaptiveBackoffRatio = 0.9;
+
+    /**
+     * Maximum number of batch jobs, running or finished, kept in the job registry.
+     */
+    private int maxRetainedJobs = 100;
+
+    /**
+     * How long a finished job stays available for progress and result queries.
+     */
+    private Duration finishedJobTtl = Duration.ofHours(1);
+
+    public enum ExecutorMode {
+        /** One platform thread per available processor. */
+        FIXED,
+        /** One virtual thread per item, for I/O-bound processing. */
+        VIRTUAL
+    }
+}
@@ -0,0 +1,22 @@
+package com.siemens.internship;
+
+/**
+ * Summary of a finished batch run, used to compare the throughput of the processing modes.
+ *
+ * @param processed     number of items that reached the processed state
+ * @param failed        number of items that failed every attempt
+ * @param elapsedMillis wall-clock duration of the run
+ * @param rowsPerSecond processed items divided by the elapsed time
+ */
+public record BatchReport(long processed, long failed, long elapsedMillis, double rowsPerSecond) {
+
+    static BatchReport of(long processed, long startNanos) {
+        return of(processed, 0, startNanos);
+    }
+
+    static BatchReport of(long processed, long failed, long startNanos) {
+        long elapsedNanos = Math.max(System.nanoTime() - startNanos, 1);
+        double rowsPerSecond = processed * 1_000_000_000d / elapsedNanos;
+        return new BatchReport(processed, failed, elapsedNanos / 1_000_000, rowsPerSecond);
+    }
+}
@@ -0,0 +1,56 @@
+package com.siemens.internship;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import jakarta.servlet.Filter;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Binary Jackson formats for clients that send {@code Accept} or {@code Content-Type} of
+ * {@code application/cbor} or {@code application/x-jackson-smile}.
+ *
+ * The mappers come from Boot's builder so they share every {@code spring.jackson.*} setting with
+ * JSON. The converters replace Spring MVC's defaults of the same type and keep their place after
+ * the JSON converter, so clients that do not ask for a binary format still get JSON.
+ *
+ * Since one URL has several representations, item responses carry {@code Vary: Accept} and the
+ * controller makes ETags specific to the negotiated format.
+ */
+@Configuration(proxyBeanMethods = false)
+public class BinaryFormatConfig {
+
+    static final MediaType SMILE = new MediaType("application", "x-jackson-smile");
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+
+    /**
+     * Adds {@code Vary: Accept} to every item response, 304s included, so a shared cache never
+     * answers a JSON client with CBOR bytes or revalidates one format with another's ETag.
+     */
+    @Bean
+    public FilterRegistrationBean<Filter> varyAcceptFilter() {
+        Filter filter = (request, response, chain) -> {
+            ((HttpServletResponse) response).addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+            chain.doFilter(request, response);
+        };
+        FilterRegistrationBean<Filter> registration = new FilterRegistrationBean<>(filter);
+        registration.addUrlPatterns("/api/items", "/api/items/*");
+        return registration;
+    }
+}
@@ -0,0 +1,32 @@
+package com.siemens.internship;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk create. Either every item was inserted or, when any of them was invalid,
+ * none was and {@code errors} lists the problems.
+ *
+ * @param created       number of items inserted
+ * @param elapsedMillis wall-clock duration of the insert
+ * @param rowsPerSecond inserted items divided by the elapsed time
+ * @param errors        validation problems by position in the request, empty on success
+ */
+public record BulkCreateReport(long created, long elapsedMillis, double rowsPerSecond, List<ItemError> errors) {
+
+    static BulkCreateReport of(long created, long startNanos) {
+        BatchReport report = BatchReport.of(created, startNanos);
+        return new BulkCreateReport(created, report.elapsedMillis(), report.rowsPerSecond(), List.of());
+    }
+
+    static BulkCreateReport rejected(List<ItemError> errors) {
+        return new BulkCreateReport(0, 0, 0, errors);
+    }
+
+    /**
+     * A constraint violated by the item at {@code index} of the request.
+     *
+     * @param field offending attribute, or null when the item itself is unusable
+     */
+    public record ItemError(int index, String field, String message) {
+    }
+}
@@ -0,0 +1,11 @@
+package com.siemens.internship;
+
+/**
+ * Outcome of a chunked bulk delete.
+ *
+ * @param deleted       total number of rows removed
+ * @param chunks        number of DELETE transactions run
+ * @param elapsedMillis wall-clock duration of the delete
+ */
+public record BulkDeleteReport(long deleted, int chunks, long elapsedMillis) {
+}
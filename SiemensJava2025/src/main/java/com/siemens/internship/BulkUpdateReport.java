@@ -0,0 +1,20 @@
+package com.siemens.internship;
+
+import java.util.List;
+
+/**
+ * Outcome of a set-based bulk status update.
+ *
+ * @param status        status written to the matching items
+ * @param updated       total number of rows changed
+ * @param chunks        affected-row count of every id range, in execution order
+ * @param elapsedMillis wall-clock duration of the update
+ */
+public record BulkUpdateReport(String status, long updated, List<ChunkUpdate> chunks, long elapsedMillis) {
+
+    /**
+     * Rows changed by the UPDATE covering the inclusive id range {@code [fromId, toId]}.
+     */
+    public record ChunkUpdate(long fromId, long toId, int updated) {
+    }
+}
@@ -0,0 +1,35 @@
+package com.siemens.internship;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * An item that still failed after every batch retry, kept until a redrive processes it successfully.
+ */
+@Entity
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class DeadLetter {
+    public static final int MAX_ERROR_LENGTH = 1000;
+
+    // One entry per item, a new failure replaces the previous one
+    @Id
+    private Long itemId;
+
+    @Column(length = MAX_ERROR_LENGTH)
+    private String error;
+
+    // Attempts made across every run that failed this item
+    private int attempts;
+
+    private Instant failedAt;
+}
@@ -0,0 +1,50 @@
+package com.siemens.internship;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface DeadLetterRepository extends JpaRepository<DeadLetter, Long> {
+
+    /**
+     * Keyset page of dead-lettered item ids in ascending order, starting strictly after the given id.
+     */
+    @Query("SELECT d.itemId FROM DeadLetter d WHERE d.itemId > :afterId ORDER BY d.itemId")
+    List<Long> findItemIdsAfter(@Param("afterId") Long afterId, Limit limit);
+
+    List<DeadLetter> findByItemIdGreaterThanOrderByItemIdAsc(Long itemId, Limit limit);
+
+    /**
+     * Removes the entry of one item with a single DELETE, without loading it first.
+     *
+     * @return 1 if the item had an entry, 0 otherwise
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM DeadLetter d WHERE d.itemId = :itemId")
+    int deleteRowByItemId(@Param("itemId") Long itemId);
+
+    /**
+     * Removes the entries of the given items. Callers keep the list within
+     * {@link ItemRepository#MAX_IN_LIST_SIZE} and run it in their own transaction.
+     */
+    @Modifying
+    @Query("DELETE FROM DeadLetter d WHERE d.itemId IN :itemIds")
+    int deleteRowsByItemIdIn(@Param("itemIds") Collection<Long> itemIds);
+
+    /**
+     * Drops entries whose item has been deleted in the meantime, they can never be redriven.
+     *
+     * @return number of entries removed
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM DeadLetter d WHERE NOT EXISTS (SELECT i.id FROM Item i WHERE i.id = d.itemId)")
+    int deleteOrphans();
+}
@@ -0,0 +1,34 @@
+package com.siemens.internship;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Retention of idempotency keys for item creation, bound from {@code items.idempotency.*}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "items.idempotency")
+public class IdempotencyProperties {
+
+    /**
+     * Maximum number of completed keys remembered; the least recently and frequently used ones are
+     * evicted first. Keys whose creation is still running are not counted and never evicted.
+     */
+    private long maximumSize = 10_000;
+
+    /**
+     * How long a key is remembered, counted from when its creation finished. Retries after this
+     * window create a new item.
+     */
+    private Duration ttl = Duration.ofHours(24);
+
+    /**
+     * How long a retry waits for a creation with the same key that is still running before it is
+     * answered 409 Conflict.
+     */
+    private Duration waitTimeout = Duration.ofSeconds(10);
+}
@@ -0,0 +1,107 @@
+package com.siemens.internship;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Remembers the outcome of item creations by {@code Idempotency-Key}, so a retried request
+ * returns the item created the first time instead of inserting a duplicate.
+ *
+ * The store is bounded in size and entries expire after {@code items.idempotency.ttl}. Keys whose
+ * creation is still running weigh nothing, so they are never evicted to make room and a retry can
+ * not slip past a running creation. A request that arrives while the first one with the same key
+ * is still running waits for it, up to {@code items.idempotency.wait-timeout}, and shares its
+ * result. If the first one fails, its key is released and the next waiter runs the creation itself.
+ * Statistics are published as {@code cache.*} meters tagged {@code cache=idempotency}.
+ */
+@Component
+public class IdempotencyStore {
+
+    private final Cache<String, Entry> entries;
+    private final Duration waitTimeout;
+
+    public IdempotencyStore(IdempotencyProperties properties, MeterRegistry registry) {
+        waitTimeout = properties.getWaitTimeout();
+        entries = Caffeine.newBuilder()
+                .maximumWeight(properties.getMaximumSize())
+                .<String, Entry>weigher((key, entry) -> entry.result().isDone() ? 1 : 0)
+                .expireAfterWrite(properties.getTtl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(registry, entries, "idempotency");
+    }
+
+    /**
+     * Runs {@code create} unless a request with the same key already did.
+     *
+     * @param key         client-chosen idempotency key
+     * @param fingerprint identifies the request payload; a key reused with another payload is refused
+     * @param create      the creation to run at most once per key
+     */
+    public Result execute(String key, String fingerprint, Supplier<Item> create) {
+        while (true) {
+            Entry mine = new Entry(fingerprint, new CompletableFuture<>());
+            Entry existing = entries.asMap().putIfAbsent(key, mine);
+            if (existing == null) {
+                return new Result(Outcome.CREATED, run(key, mine, create));
+            }
+            if (!existing.fingerprint().equals(fingerprint)) {
+                return new Result(Outcome.KEY_REUSED, null);
+            }
+            try {
+                return new Result(Outcome.REPLAYED,
+                        existing.result().get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS));
+            } catch (TimeoutException e) {
+                return new Result(Outcome.IN_PROGRESS, null);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return new Result(Outcome.IN_PROGRESS, null);
+            } catch (ExecutionException e) {
+                // The first request failed and released the key; try to take it over
+            }
+        }
+    }
+
+    private Item run(String key, Entry entry, Supplier<Item> create) {
+        try {
+            Item item = create.get();
+            entry.result().complete(item);
+            // Re-insert so the finished entry is weighed again and starts counting against the bound
+            entries.asMap().replace(key, entry, new Entry(entry.fingerprint(), entry.result()));
+            return item;
+        } catch (RuntimeException e) {
+            entries.asMap().remove(key, entry);
+            entry.result().completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private record Entry(String fingerprint, CompletableFuture<Item> result) {
+    }
+
+    public enum Outcome {
+        CREATED,
+        // An earlier request with the same key and payload created the item
+        REPLAYED,
+        // The key was already used with a different payload
+        KEY_REUSED,
+        // The first request with the same key is still running after the wait timeout
+        IN_PROGRESS
+    }
+
+    /**
+     * @param item the created item, null when the key was reused or is still in progress
+     */
+    public record Result(Outcome outcome, Item item) {
+    }
+}
@@ -1,9 +1,17 @@
 package com.siemens.internship;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
@@ -13,14 +21,28 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
+import java.time.Instant;
+
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_item_last_modified", columnList = "lastModified"),
+        // Filter column first, then id, so filtered keyset pages are a single ordered index range
+        @Index(name = "idx_item_status_id", columnList = "status, id"),
+        @Index(name = "idx_item_email_id", columnList = "email, id"),
+        // Incremental batch runs read only the flagged rows, as one index range in id order
+        @Index(name = "idx_item_needs_work_id", columnList = "needsWork, id")
+})
 @Getter
 @Setter
 @AllArgsConstructor
 @NoArgsConstructor
 public class Item {
+    static final int ID_BLOCK_SIZE = 50;
+
+    // Pooled sequence: one round trip hands out a block of ids, so inserts can be JDBC-batched
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "item_seq")
+    @SequenceGenerator(name = "item_seq", sequenceName = "item_seq", allocationSize = ID_BLOCK_SIZE)
     private Long id;
 
     private String name;
@@ -31,4 +53,23 @@ public class Item {
     @Email(message = "Email should be valid")
     @Pattern(regexp = "^[A-Za-z0-9._%+-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,6}$", message = "Email must be a valid email address")
     private String email;
-}
\ No newline at end of file
+
+    // Optimistic lock: concurrent writers of the same row cannot silently overwrite each other
+    @Version
+    private Long version;
+
+    // Maintained by the entity lifecycle
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Instant lastModified;
+
+    // Set by every write; only the batch write that processes the item clears it
+    @JsonIgnore
+    private boolean needsWork = true;
+
+    @PrePersist
+    @PreUpdate
+    void touch() {
+        lastModified = Instant.now();
+        needsWork = true;
+    }
+}
@@ -0,0 +1,86 @@
+package com.siemens.internship;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Bounded read-through cache of items by id, in front of the repository.
+ *
+ * Entries are copies of the entity, and every read hands out a fresh copy, so callers can
+ * modify what they get without changing the cached state. Writers must evict the ids they
+ * change; statistics are published as {@code cache.*} meters tagged {@code cache=items}.
+ *
+ * Evicting by id waits for a load of that id in progress and then removes what it loaded, but
+ * {@link #evictRange} and {@link #evictAll()} cannot see loads that have not finished yet. Those
+ * two bump a counter, and a load that overlapped one is not kept, so a value read before a write
+ * cannot outlive its eviction. Per-id evictions leave the counter alone, so frequent single-item
+ * writes do not stop unrelated loads from being cached.
+ */
+@Component
+public class ItemCache {
+
+    private final Cache<Long, Item> cache;
+    private final AtomicLong evictions = new AtomicLong();
+
+    public ItemCache(ItemCacheProperties properties, MeterRegistry registry) {
+        cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getExpireAfterWrite())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(registry, cache, "items");
+    }
+
+    /**
+     * Returns the cached item, or loads it and caches it when present. Missing items are not cached.
+     */
+    public Optional<Item> get(Long id, Function<Long, Optional<Item>> loader) {
+        long before = evictions.get();
+        Item item = cache.get(id, key -> loader.apply(key).map(ItemCache::copyOf).orElse(null));
+        if (item != null && evictions.get() != before) {
+            // The value may have been loaded before a write whose eviction missed it
+            cache.asMap().remove(id, item);
+        }
+        return Optional.ofNullable(item).map(ItemCache::copyOf);
+    }
+
+    public void evict(Long id) {
+        cache.invalidate(id);
+    }
+
+    public void evictAll(Collection<Long> ids) {
+        cache.invalidateAll(ids);
+    }
+
+    /**
+     * Evicts every cached item whose id lies in {@code [fromId, toId]}. For writers that know
+     * the range but not the ids, such as single-statement range updates.
+     */
+    public void evictRange(long fromId, long toId) {
+        evictions.incrementAndGet();
+        cache.asMap().keySet().removeIf(id -> id >= fromId && id <= toId);
+    }
+
+    public void evictAll() {
+        evictions.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    private static Item copyOf(Item item) {
+        return new Item(item.getId(), item.getName(), item.getDescription(), item.getStatus(),
+                item.getEmail(), item.getVersion(), item.getLastModified(), item.isNeedsWork());
+    }
+}
@@ -0,0 +1,27 @@
+package com.siemens.internship;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Sizing of the item read cache, bound from {@code items.cache.*}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "items.cache")
+public class ItemCacheProperties {
+
+    /**
+     * Maximum number of items kept; the least recently and frequently used ones are evicted first.
+     */
+    private long maximumSize = 10_000;
+
+    /**
+     * How long an entry is served after it was loaded. Bounds staleness for writes that
+     * bypass the service, such as manual SQL.
+     */
+    private Duration expireAfterWrite = Duration.ofSeconds(30);
+}
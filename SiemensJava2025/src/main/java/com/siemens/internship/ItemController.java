@@ -1,72 +1,673 @@
 package com.siemens.internship;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.InvalidMediaTypeException;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.MimeTypeUtils;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api/items")
 public class ItemController {
 
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int MAX_LOOKUP_IDS = 10_000;
+    private static final int MAX_BULK_ITEMS = 100_000;
+    private static final String MERGE_PATCH_JSON_VALUE = "application/merge-patch+json";
+    private static final String CBOR_ETAG_SUFFIX = "-cbor";
+    private static final String SMILE_ETAG_SUFFIX = "-smile";
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    private static final String IDEMPOTENT_REPLAYED = "Idempotent-Replayed";
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 255;
+
     @Autowired
     private ItemService itemService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private IdempotencyStore idempotencyStore;
+
+    /**
+     * Lists items. Without {@code limit}, {@code cursor} or a filter the whole table is returned as
+     * before; otherwise the result is a keyset page and the following page is linked from a
+     * {@code Link: <...>; rel="next"} header carrying an opaque cursor.
+     * {@code status} and {@code email} restrict the list to exactly matching items.
+     *
+     * The ETag is the table generation, so a matching {@code If-None-Match} is answered with 304
+     * before any row is read.
+     */
     @GetMapping
-    public ResponseEntity<List<Item>> getAllItems() {
-        List<Item> items = itemService.findAll();
-        return items.isEmpty()
-                ? new ResponseEntity<>(HttpStatus.NO_CONTENT)
-                : new ResponseEntity<>(items, HttpStatus.OK);
+    public ResponseEntity<List<Item>> getAllItems(@RequestParam(required = false) Integer limit,
+                                                  @RequestParam(required = false) String cursor,
+                                                  @RequestParam(required = false) String status,
+                                                  @RequestParam(required = false) String email,
+                                                  @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                                  @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        String eTag = eTag(itemService.currentGeneration(), accept);
+        if (matchesAny(ifNoneMatch, eTag)) {
+            return notModified(eTag);
+        }
+        ItemFilter filter = new ItemFilter(status, email);
+        if (limit == null && cursor == null && filter.isEmpty()) {
+            List<Item> items = itemService.findAll();
+            HttpHeaders headers = new HttpHeaders();
+            headers.setETag(eTag);
+            return items.isEmpty()
+                    ? new ResponseEntity<>(headers, HttpStatus.NO_CONTENT)
+                    : new ResponseEntity<>(items, headers, HttpStatus.OK);
+        }
+
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : limit;
+        Long afterId;
+        try {
+            afterId = parseCursor(cursor);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        if (pageSize <= 0 || pageSize > MAX_PAGE_SIZE) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        return pageResponse(itemService.findPage(filter, afterId, pageSize), pageSize, eTag);
+    }
+
+    /**
+     * Sparse variant of {@link #getAllItems}: {@code fields=id,status} reads and returns only the
+     * listed attributes. Paging and filtering work the same way.
+     */
+    @GetMapping(params = {"fields", "!ids"})
+    public ResponseEntity<List<Map<String, Object>>> getAllItemFields(@RequestParam String fields,
+                                                                      @RequestParam(required = false) Integer limit,
+                                                                      @RequestParam(required = false) String cursor,
+                                                                      @RequestParam(required = false) String status,
+                                                                      @RequestParam(required = false) String email,
+                                                                      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                                                      @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        String eTag = eTag(itemService.currentGeneration(), accept);
+        if (matchesAny(ifNoneMatch, eTag)) {
+            return notModified(eTag);
+        }
+        ItemFilter filter = new ItemFilter(status, email);
+        List<String> selected;
+        Long afterId;
+        try {
+            selected = ItemFields.parse(fields);
+            afterId = parseCursor(cursor);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        if (limit == null && cursor == null && filter.isEmpty()) {
+            return pageResponse(itemService.findFieldsPage(selected, filter, null, null), null, eTag);
+        }
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : limit;
+        if (pageSize <= 0 || pageSize > MAX_PAGE_SIZE) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        return pageResponse(itemService.findFieldsPage(selected, filter, afterId, pageSize), pageSize, eTag);
+    }
+
+    /**
+     * Multi-get: {@code ids=1,2,3} resolves every id in one round trip and reports the ones
+     * that do not exist. Use {@link #lookupItems} for lists too long for a URL. The ids already
+     * select the items, so combining them with {@code fields}, {@code status} or {@code email}
+     * is rejected instead of silently ignoring either side.
+     */
+    @GetMapping(params = "ids")
+    public ResponseEntity<ItemLookup> getItemsByIds(@RequestParam List<Long> ids,
+                                                    @RequestParam(required = false) String fields,
+                                                    @RequestParam(required = false) String status,
+                                                    @RequestParam(required = false) String email) {
+        if (fields != null || status != null || email != null) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        return lookupResponse(ids, MAX_PAGE_SIZE);
+    }
+
+    /**
+     * Multi-get with the ids as a JSON array in the body.
+     */
+    @PostMapping("/lookup")
+    public ResponseEntity<ItemLookup> lookupItems(@RequestBody List<Long> ids) {
+        return lookupResponse(ids, MAX_LOOKUP_IDS);
+    }
+
+    private ResponseEntity<ItemLookup> lookupResponse(List<Long> ids, int maxIds) {
+        if (ids == null || ids.isEmpty() || ids.size() > maxIds) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        return new ResponseEntity<>(itemService.findAllById(ids), HttpStatus.OK);
+    }
+
+    private static Long parseCursor(String cursor) {
+        return cursor == null ? null : ItemPage.decodeCursor(cursor);
     }
 
+    /**
+     * Answers with the page's items and, when another page follows, a {@code Link} header to it
+     * that keeps every other query parameter of the current request.
+     */
+    private static <T> ResponseEntity<List<T>> pageResponse(ItemPage<T> page, Integer pageSize, String eTag) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag(eTag);
+        if (page.nextCursor() != null) {
+            String next = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("limit", pageSize)
+                    .replaceQueryParam("cursor", page.nextCursor())
+                    .build().toUriString();
+            headers.add(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        }
+        return page.items().isEmpty()
+                ? new ResponseEntity<>(headers, HttpStatus.NO_CONTENT)
+                : new ResponseEntity<>(page.items(), headers, HttpStatus.OK);
+    }
+
+    /**
+     * Streams the whole table as NDJSON, one item per line, in constant memory.
+     * Meant for consumers that need every item; interactive clients should page instead.
+     * Like the batch stream, the response may stay open for {@code spring.mvc.async.request-timeout}.
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportItems() {
+        StreamingResponseBody body = outputStream ->
+                itemService.exportAll(item -> writeLine(outputStream, item, false));
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_NDJSON);
+        return new ResponseEntity<>(body, headers, HttpStatus.OK);
+    }
+
+    /**
+     * Creates an item. With an {@code Idempotency-Key} header, retries of the same request return
+     * the item created the first time, marked with {@code Idempotent-Replayed: true}, and never
+     * insert again. Reusing a key for a different payload answers 422; a retry whose first request
+     * is still running after {@code items.idempotency.wait-timeout} answers 409. An id or version in
+     * the body is ignored, so POST always inserts a new item.
+     */
     @PostMapping
-    public ResponseEntity<Item> createItem(@Valid @RequestBody Item item, BindingResult result) {
+    public ResponseEntity<Item> createItem(@Valid @RequestBody Item item, BindingResult result,
+                                           @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey)
+            throws JsonProcessingException {
         if (result.hasErrors()) {
             return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
         }
-        Item savedItem = itemService.save(item);
-        return new ResponseEntity<>(savedItem, HttpStatus.CREATED);
+        item.setId(null);
+        item.setVersion(null);
+        if (idempotencyKey == null) {
+            Item savedItem = itemService.save(item);
+            return new ResponseEntity<>(savedItem, HttpStatus.CREATED);
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+
+        IdempotencyStore.Result created = idempotencyStore.execute(
+                idempotencyKey, objectMapper.writeValueAsString(item), () -> itemService.save(item));
+        return switch (created.outcome()) {
+            case KEY_REUSED -> new ResponseEntity<>(HttpStatus.UNPROCESSABLE_ENTITY);
+            case IN_PROGRESS -> new ResponseEntity<>(HttpStatus.CONFLICT);
+            case CREATED -> new ResponseEntity<>(created.item(), HttpStatus.CREATED);
+            case REPLAYED -> {
+                HttpHeaders headers = new HttpHeaders();
+                headers.add(IDEMPOTENT_REPLAYED, "true");
+                yield new ResponseEntity<>(created.item(), headers, HttpStatus.CREATED);
+            }
+        };
+    }
+
+    /**
+     * Creates many items in one request and one transaction. Every element is validated first;
+     * if any is invalid nothing is inserted and the answer is 400 with the problems by index.
+     */
+    @PostMapping("/bulk")
+    public ResponseEntity<BulkCreateReport> createItems(@RequestBody List<Item> items) {
+        return bulkCreateResponse(items);
+    }
+
+    /**
+     * Same as {@link #createItems} for an NDJSON body, one item per line.
+     */
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<BulkCreateReport> createItemsFromNdjson(InputStream body) throws IOException {
+        List<Item> items = new ArrayList<>();
+        try (MappingIterator<Item> lines = objectMapper.readerFor(Item.class).readValues(body)) {
+            while (lines.hasNextValue()) {
+                if (items.size() == MAX_BULK_ITEMS) {
+                    return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+                }
+                items.add(lines.nextValue());
+            }
+        } catch (JsonProcessingException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        return bulkCreateResponse(items);
+    }
+
+    private ResponseEntity<BulkCreateReport> bulkCreateResponse(List<Item> items) {
+        if (items == null || items.isEmpty() || items.size() > MAX_BULK_ITEMS) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        List<BulkCreateReport.ItemError> errors = new ArrayList<>();
+        for (int i = 0; i < items.size(); i++) {
+            if (items.get(i) == null) {
+                errors.add(new BulkCreateReport.ItemError(i, null, "Item is required"));
+                continue;
+            }
+            for (ConstraintViolation<Item> violation : validator.validate(items.get(i))) {
+                errors.add(new BulkCreateReport.ItemError(i, violation.getPropertyPath().toString(), violation.getMessage()));
+            }
+        }
+        if (!errors.isEmpty()) {
+            return new ResponseEntity<>(BulkCreateReport.rejected(errors), HttpStatus.BAD_REQUEST);
+        }
+        return new ResponseEntity<>(itemService.createAll(items), HttpStatus.CREATED);
     }
 
+    /**
+     * Returns one item with its version as a strong ETag. A matching {@code If-None-Match} is
+     * answered with 304 and no body; the version comes from the read cache when the item is in it.
+     */
     @GetMapping("/{id}")
-    public ResponseEntity<Item> getItemById(@PathVariable Long id) {
-        return itemService.findById(id)
+    public ResponseEntity<Item> getItemById(@PathVariable Long id,
+                                            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        Optional<Item> item = itemService.findById(id);
+        if (item.isEmpty()) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        if (item.get().getVersion() == null) {
+            return new ResponseEntity<>(item.get(), HttpStatus.OK);
+        }
+        String eTag = eTag(item.get().getVersion(), accept);
+        if (matchesAny(ifNoneMatch, eTag)) {
+            return notModified(eTag);
+        }
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag(eTag);
+        return new ResponseEntity<>(item.get(), headers, HttpStatus.OK);
+    }
+
+    @GetMapping(value = "/{id}", params = "fields")
+    public ResponseEntity<Map<String, Object>> getItemFieldsById(@PathVariable Long id, @RequestParam String fields) {
+        List<String> selected;
+        try {
+            selected = ItemFields.parse(fields);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        return itemService.findFieldsById(id, selected)
                 .map(item -> new ResponseEntity<>(item, HttpStatus.OK))
                 .orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND));
     }
 
+    /**
+     * Replaces an item without ever overwriting a newer write.
+     *
+     * The body may carry the {@code version} it was based on, and an {@code If-Match} header may
+     * carry the item's ETag. The write is a single UPDATE conditional on that version; a stale
+     * If-Match answers 412 and a stale body version answers 409, including when a concurrent
+     * update (for example a batch run) got there first. Without either precondition the item is
+     * overwritten and the response carries no version, since it was not read.
+     */
     @PutMapping("/{id}")
-    public ResponseEntity<Item> updateItem(@PathVariable Long id, @Valid @RequestBody Item item) {
-        Optional<Item> existingItem = itemService.findById(id);
-        if (existingItem.isPresent()) {
-            item.setId(id);
-            return new ResponseEntity<>(itemService.save(item), HttpStatus.OK);
-        } else {
-            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+    public ResponseEntity<Item> updateItem(@PathVariable Long id, @Valid @RequestBody Item item,
+                                           @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                           @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        Long ifMatchVersion = null;
+        if (ifMatch != null && !ifMatch.trim().equals("*")) {
+            ifMatchVersion = parseETag(ifMatch);
+            if (ifMatchVersion == null) {
+                return new ResponseEntity<>(HttpStatus.PRECONDITION_FAILED);
+            }
+        }
+        if (ifMatchVersion != null && item.getVersion() != null && !ifMatchVersion.equals(item.getVersion())) {
+            // The two preconditions disagree, so at most one holds; read once to tell which
+            Optional<Item> current = itemService.findById(id);
+            if (current.isEmpty()) {
+                return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+            }
+            return ifMatchVersion.equals(current.get().getVersion())
+                    ? new ResponseEntity<>(HttpStatus.CONFLICT)
+                    : new ResponseEntity<>(HttpStatus.PRECONDITION_FAILED);
         }
+
+        ItemUpdate update = itemService.update(id, item, ifMatchVersion != null ? ifMatchVersion : item.getVersion());
+        return switch (update.outcome()) {
+            case NOT_FOUND -> new ResponseEntity<>(HttpStatus.NOT_FOUND);
+            case VERSION_MISMATCH -> new ResponseEntity<>(
+                    ifMatchVersion != null ? HttpStatus.PRECONDITION_FAILED : HttpStatus.CONFLICT);
+            case UPDATED -> {
+                HttpHeaders headers = new HttpHeaders();
+                if (update.item().getVersion() != null) {
+                    headers.setETag(eTag(update.item().getVersion(), accept));
+                }
+                yield new ResponseEntity<>(update.item(), headers, HttpStatus.OK);
+            }
+        };
+    }
+
+    /**
+     * JSON Merge Patch (RFC 7396): only the attributes present in the body are changed, and
+     * {@code null} clears one. The change is a single UPDATE of those columns, conditional on
+     * {@code If-Match} when given. Answers 204, with the new ETag when the old version was known.
+     */
+    @PatchMapping(value = "/{id}", consumes = {MERGE_PATCH_JSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<Void> patchItem(@PathVariable Long id, @RequestBody Map<String, Object> patch,
+                                          @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                          @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        Long ifMatchVersion = null;
+        if (ifMatch != null && !ifMatch.trim().equals("*")) {
+            ifMatchVersion = parseETag(ifMatch);
+            if (ifMatchVersion == null) {
+                return new ResponseEntity<>(HttpStatus.PRECONDITION_FAILED);
+            }
+        }
+        for (Map.Entry<String, Object> change : patch.entrySet()) {
+            if (!ItemFields.EDITABLE.contains(change.getKey())
+                    || (change.getValue() != null && !(change.getValue() instanceof String))
+                    || !validator.validateValue(Item.class, change.getKey(), change.getValue()).isEmpty()) {
+                return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+            }
+        }
+
+        if (patch.isEmpty()) {
+            // Nothing to write; the patch still applies to an existing item
+            return itemService.findById(id)
+                    .map(item -> noContent(item.getVersion(), accept))
+                    .orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+        }
+        ItemUpdate update = itemService.patch(id, patch, ifMatchVersion);
+        return switch (update.outcome()) {
+            case NOT_FOUND -> new ResponseEntity<>(HttpStatus.NOT_FOUND);
+            case VERSION_MISMATCH -> new ResponseEntity<>(HttpStatus.PRECONDITION_FAILED);
+            case UPDATED -> noContent(ifMatchVersion == null ? null : ifMatchVersion + 1, accept);
+        };
+    }
+
+    private static ResponseEntity<Void> noContent(Long version, String accept) {
+        HttpHeaders headers = new HttpHeaders();
+        if (version != null) {
+            headers.setETag(eTag(version, accept));
+        }
+        return new ResponseEntity<>(headers, HttpStatus.NO_CONTENT);
+    }
+
+    /**
+     * Version carried by a strong ETag as produced by {@link #eTag}, in any format, or null if it
+     * is not one. Preconditions compare versions, so an ETag taken from a CBOR response still
+     * guards a JSON write.
+     */
+    private static Long parseETag(String eTag) {
+        String tag = eTag.trim();
+        if (tag.length() < 3 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+            return null;
+        }
+        String value = tag.substring(1, tag.length() - 1);
+        for (String suffix : List.of(CBOR_ETAG_SUFFIX, SMILE_ETAG_SUFFIX)) {
+            if (value.endsWith(suffix)) {
+                value = value.substring(0, value.length() - suffix.length());
+                break;
+            }
+        }
+        try {
+            return Long.valueOf(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Strong ETag of {@code value} for the representation negotiated from {@code accept}. The
+     * bytes of each format differ, so CBOR and Smile get their own suffix; JSON keeps the bare value.
+     */
+    private static String eTag(Object value, String accept) {
+        return "\"" + value + formatSuffix(accept) + "\"";
+    }
+
+    /**
+     * Mirrors Spring MVC's choice of converter: the most specific acceptable type wins, and
+     * wildcards resolve to JSON, whose converter is registered first.
+     */
+    private static String formatSuffix(String accept) {
+        if (accept == null) {
+            return "";
+        }
+        List<MediaType> acceptable;
+        try {
+            acceptable = new ArrayList<>(MediaType.parseMediaTypes(accept));
+        } catch (InvalidMediaTypeException e) {
+            return "";
+        }
+        MimeTypeUtils.sortBySpecificity(acceptable);
+        for (MediaType type : acceptable) {
+            if (type.getQualityValue() == 0) {
+                continue;
+            }
+            if (type.includes(MediaType.APPLICATION_JSON)) {
+                return "";
+            }
+            if (type.includes(MediaType.APPLICATION_CBOR)) {
+                return CBOR_ETAG_SUFFIX;
+            }
+            if (type.includes(BinaryFormatConfig.SMILE)) {
+                return SMILE_ETAG_SUFFIX;
+            }
+        }
+        return "";
+    }
+
+    /**
+     * Weak comparison as required for {@code If-None-Match}: a {@code W/} prefix is ignored and
+     * {@code *} matches any current representation.
+     */
+    private static boolean matchesAny(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static <T> ResponseEntity<T> notModified(String eTag) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag(eTag);
+        return new ResponseEntity<>(headers, HttpStatus.NOT_MODIFIED);
     }
 
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteItem(@PathVariable Long id) {
-        if (!itemService.findById(id).isPresent()) {
-            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        return itemService.deleteById(id)
+                ? new ResponseEntity<>(HttpStatus.NO_CONTENT)
+                : new ResponseEntity<>(HttpStatus.NOT_FOUND);
+    }
+
+    /**
+     * Bulk delete by {@code ids=1,2,3}, or by {@code status} and/or {@code email} filter.
+     * Rows are removed in bounded chunks, each in its own transaction. A request without ids
+     * or a filter is rejected rather than emptying the table.
+     */
+    @DeleteMapping
+    public ResponseEntity<BulkDeleteReport> deleteItems(@RequestParam(required = false) List<Long> ids,
+                                                        @RequestParam(required = false) String status,
+                                                        @RequestParam(required = false) String email) {
+        ItemFilter filter = new ItemFilter(status, email);
+        if (ids != null && filter.isEmpty()) {
+            return ids.isEmpty() || ids.size() > MAX_PAGE_SIZE
+                    ? new ResponseEntity<>(HttpStatus.BAD_REQUEST)
+                    : new ResponseEntity<>(itemService.deleteAllById(ids), HttpStatus.OK);
         }
-        itemService.deleteById(id);
-        return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+        if (ids != null || filter.isEmpty()) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        return new ResponseEntity<>(itemService.deleteAllMatching(filter), HttpStatus.OK);
     }
 
+    /**
+     * Bulk delete with the ids as a JSON array in the body, for lists too long for a URL.
+     */
+    @PostMapping("/delete")
+    public ResponseEntity<BulkDeleteReport> deleteItemsById(@RequestBody List<Long> ids) {
+        if (ids == null || ids.isEmpty() || ids.size() > MAX_LOOKUP_IDS) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        return new ResponseEntity<>(itemService.deleteAllById(ids), HttpStatus.OK);
+    }
+
+    /**
+     * Starts a background batch job and answers 202 with its id, so long runs do not hold
+     * the request open. Progress and results are read from the job endpoints below.
+     * With {@code incremental=true} only items changed since the last incremental run are processed.
+     */
     @PostMapping("/batch-process")
-    public CompletableFuture<ResponseEntity<List<Item>>> processItems() {
-        return itemService.processItemsAsync()
-                .thenApply(processedItems -> processedItems.isEmpty()
-                        ? new ResponseEntity<>(HttpStatus.NO_CONTENT)
-                        : new ResponseEntity<>(processedItems, HttpStatus.OK));
+    public ResponseEntity<BatchJobStatus> processItems(@RequestParam(defaultValue = "false") boolean incremental) {
+        BatchJob job;
+        try {
+            job = incremental ? itemService.startIncrementalBatchJob() : itemService.startBatchJob();
+        } catch (RejectedExecutionException e) {
+            return new ResponseEntity<>(HttpStatus.TOO_MANY_REQUESTS);
+        }
+        HttpHeaders headers = new HttpHeaders();
+        headers.setLocation(URI.create("/api/items/batch-process/" + job.getId()));
+        return new ResponseEntity<>(job.toStatus(), headers, HttpStatus.ACCEPTED);
+    }
+
+    /**
+     * Reprocesses only the dead-lettered items as a background job, answering 202 like {@link #processItems}.
+     */
+    @PostMapping("/dead-letters/redrive")
+    public ResponseEntity<BatchJobStatus> redriveDeadLetters() {
+        BatchJob job;
+        try {
+            job = itemService.startRedriveJob();
+        } catch (RejectedExecutionException e) {
+            return new ResponseEntity<>(HttpStatus.TOO_MANY_REQUESTS);
+        }
+        HttpHeaders headers = new HttpHeaders();
+        headers.setLocation(URI.create("/api/items/batch-process/" + job.getId()));
+        return new ResponseEntity<>(job.toStatus(), headers, HttpStatus.ACCEPTED);
+    }
+
+    @GetMapping("/dead-letters")
+    public ResponseEntity<List<DeadLetter>> getDeadLetters(@RequestParam(required = false) Long afterItemId,
+                                                           @RequestParam(defaultValue = "100") int limit) {
+        if (limit <= 0 || limit > MAX_PAGE_SIZE) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        return new ResponseEntity<>(itemService.findDeadLetters(afterItemId, limit), HttpStatus.OK);
+    }
+
+    @GetMapping("/batch-process/{jobId}")
+    public ResponseEntity<BatchJobStatus> getBatchJob(@PathVariable String jobId) {
+        return itemService.findBatchJob(jobId)
+                .map(job -> new ResponseEntity<>(job.toStatus(), HttpStatus.OK))
+                .orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    }
+
+    @GetMapping("/batch-process/{jobId}/results")
+    public ResponseEntity<List<Item>> getBatchJobResults(@PathVariable String jobId,
+                                                         @RequestParam(defaultValue = "0") int page,
+                                                         @RequestParam(defaultValue = "100") int size) {
+        if (page < 0 || size <= 0 || size > MAX_PAGE_SIZE) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        return itemService.findBatchJob(jobId)
+                .map(job -> new ResponseEntity<>(itemService.findBatchJobResults(job, page, size), HttpStatus.OK))
+                .orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    }
+
+    @PostMapping("/batch-process/chunked")
+    public ResponseEntity<BatchReport> processItemsChunked(@RequestParam(required = false) Integer chunkSize) {
+        if (chunkSize != null && chunkSize <= 0) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        BatchReport report = chunkSize == null
+                ? itemService.processItemsChunked()
+                : itemService.processItemsChunked(chunkSize);
+        return new ResponseEntity<>(report, HttpStatus.OK);
+    }
+
+    /**
+     * Sets the status of all items, or only of those in {@code currentStatus}, with chunked
+     * set-based UPDATEs instead of processing items one by one.
+     */
+    @PostMapping("/batch-process/bulk-status")
+    public ResponseEntity<BulkUpdateReport> bulkUpdateStatus(@RequestParam String status,
+                                                             @RequestParam(required = false) String currentStatus) {
+        if (status.isBlank()) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        return new ResponseEntity<>(itemService.bulkUpdateStatus(status, currentStatus), HttpStatus.OK);
+    }
+
+    /**
+     * Streams every processed item as one NDJSON line as soon as it is saved, for clients
+     * that want the results in the same request instead of polling a job. The response may stay
+     * open for as long as {@code spring.mvc.async.request-timeout}; longer runs should use a job.
+     */
+    @PostMapping(value = "/batch-process/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> processItemsStreaming() {
+        StreamingResponseBody body = outputStream ->
+                itemService.processItemsStreaming(item -> writeLine(outputStream, item));
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_NDJSON);
+        return new ResponseEntity<>(body, headers, HttpStatus.OK);
+    }
+
+    private void writeLine(OutputStream outputStream, Object value) {
+        writeLine(outputStream, value, true);
+    }
+
+    /**
+     * Writes one NDJSON line. Flushing every line gets each result to the client immediately;
+     * bulk exports skip it and let the container's response buffer batch the writes.
+     */
+    private void writeLine(OutputStream outputStream, Object value, boolean flush) {
+        try {
+            byte[] line = objectMapper.writeValueAsBytes(value);
+            // Items complete on several worker threads, keep each line intact
+            synchronized (outputStream) {
+                outputStream.write(line);
+                outputStream.write('\n');
+                if (flush) {
+                    outputStream.flush();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 }
@@ -0,0 +1,44 @@
+package com.siemens.internship;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Parses the {@code fields} parameter of the item read endpoints.
+ */
+public final class ItemFields {
+
+    /** Item attributes a client may select, by their JSON and JPA name. */
+    public static final Set<String> SELECTABLE = Set.of(
+            "id", "name", "description", "status", "email", "version", "lastModified");
+
+    /** Item attributes a client may change; the rest are maintained by the server. */
+    public static final Set<String> EDITABLE = Set.of("name", "description", "status", "email");
+
+    private ItemFields() {
+    }
+
+    /**
+     * Turns {@code "id,status"} into the list of selected attributes, keeping the requested order
+     * and dropping duplicates.
+     *
+     * @throws IllegalArgumentException if the list is empty or names an unknown attribute
+     */
+    public static List<String> parse(String fields) {
+        List<String> selected = new ArrayList<>();
+        for (String field : Arrays.stream(fields.split(",")).map(String::trim).toList()) {
+            if (!SELECTABLE.contains(field)) {
+                throw new IllegalArgumentException("Unknown field: " + field);
+            }
+            if (!selected.contains(field)) {
+                selected.add(field);
+            }
+        }
+        if (selected.isEmpty()) {
+            throw new IllegalArgumentException("No fields selected");
+        }
+        return selected;
+    }
+}
@@ -0,0 +1,16 @@
+package com.siemens.internship;
+
+/**
+ * Equality filters of the item list endpoints. A null attribute does not filter.
+ *
+ * @param status only items in this status
+ * @param email  only items with this email address
+ */
+public record ItemFilter(String status, String email) {
+
+    public static final ItemFilter NONE = new ItemFilter(null, null);
+
+    public boolean isEmpty() {
+        return status == null && email == null;
+    }
+}
@@ -0,0 +1,12 @@
+package com.siemens.internship;
+
+import java.util.List;
+
+/**
+ * Result of a multi-get.
+ *
+ * @param items      items that exist, in the order their ids were requested
+ * @param missingIds requested ids with no item
+ */
+public record ItemLookup(List<Item> items, List<Long> missingIds) {
+}
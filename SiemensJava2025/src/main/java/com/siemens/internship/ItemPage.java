@@ -0,0 +1,37 @@
+package com.siemens.internship;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * One keyset page of items, either as entities or as sparse field maps.
+ *
+ * @param items      the items of this page, in ascending id order
+ * @param nextCursor opaque cursor for the following page, null on the last page
+ */
+public record ItemPage<T>(List<T> items, String nextCursor) {
+
+    private static final String CURSOR_PREFIX = "id:";
+
+    /**
+     * Encodes the last id of a page as an opaque, URL-safe cursor.
+     */
+    static String encodeCursor(Long lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((CURSOR_PREFIX + lastId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor produced by {@link #encodeCursor}.
+     *
+     * @throws IllegalArgumentException if the cursor was not produced by this class
+     */
+    static Long decodeCursor(String cursor) {
+        String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        if (!decoded.startsWith(CURSOR_PREFIX)) {
+            throw new IllegalArgumentException("Malformed cursor");
+        }
+        return Long.valueOf(decoded.substring(CURSOR_PREFIX.length()));
+    }
+}
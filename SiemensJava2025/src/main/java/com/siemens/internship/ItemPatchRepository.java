@@ -0,0 +1,21 @@
+package com.siemens.internship;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Partial updates of items that write only the changed columns, without reading the row first.
+ */
+public interface ItemPatchRepository {
+
+    /**
+     * Sets the given attributes of one item with a single UPDATE and bumps its version.
+     *
+     * @param changes         new values by attribute, all of them in {@link ItemFields#EDITABLE}
+     * @param now             new last-modified time
+     * @param expectedVersion only update while the item is at this version, or null for any version
+     * @return 1 if a row was changed, 0 if the item is missing or at another version
+     * @throws org.springframework.dao.InvalidDataAccessApiUsageException if an attribute is not editable
+     */
+    int patch(Long id, Map<String, Object> changes, Instant now, Long expectedVersion);
+}
@@ -0,0 +1,62 @@
+package com.siemens.internship;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * JPQL implementation of {@link ItemPatchRepository}, picked up by Spring Data as a fragment of
+ * {@link ItemRepository}.
+ *
+ * The UPDATE text depends only on which attributes are set and whether a version is expected.
+ * It is built once per combination and reused, so Hibernate's query plan cache sees a small fixed
+ * set of statements: at most 2 * 2^|EDITABLE| of them.
+ */
+class ItemPatchRepositoryImpl implements ItemPatchRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final Map<String, String> statements = new ConcurrentHashMap<>();
+
+    @Override
+    @Transactional
+    public int patch(Long id, Map<String, Object> changes, Instant now, Long expectedVersion) {
+        List<String> fields = changes.keySet().stream().sorted().toList();
+        for (String field : fields) {
+            if (!ItemFields.EDITABLE.contains(field)) {
+                throw new IllegalArgumentException("Not an editable field: " + field);
+            }
+        }
+        boolean conditional = expectedVersion != null;
+        String key = String.join(",", fields) + (conditional ? "@version" : "");
+        String jpql = statements.computeIfAbsent(key, k -> updateStatement(fields, conditional));
+
+        Query query = entityManager.createQuery(jpql)
+                .setParameter("id", id)
+                .setParameter("now", now);
+        fields.forEach(field -> query.setParameter(field, changes.get(field)));
+        if (conditional) {
+            query.setParameter("expectedVersion", expectedVersion);
+        }
+        return query.executeUpdate();
+    }
+
+    private static String updateStatement(List<String> fields, boolean conditional) {
+        StringBuilder jpql = new StringBuilder("UPDATE Item i SET ");
+        for (String field : fields) {
+            jpql.append("i.").append(field).append(" = :").append(field).append(", ");
+        }
+        jpql.append("i.lastModified = :now, i.needsWork = true, i.version = i.version + 1 WHERE i.id = :id");
+        if (conditional) {
+            jpql.append(" AND i.version = :expectedVersion");
+        }
+        return jpql.toString();
+    }
+}
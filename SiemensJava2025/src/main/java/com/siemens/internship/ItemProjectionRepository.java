@@ -0,0 +1,29 @@
+package com.siemens.internship;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Column-level projections of items, for clients that only need some attributes.
+ * Only the selected columns are read from the database.
+ */
+public interface ItemProjectionRepository {
+
+    /**
+     * Selected attributes of one item.
+     *
+     * @param fields attributes to select, validated by {@link ItemFields#parse}
+     */
+    Optional<Map<String, Object>> findProjectionById(Long id, List<String> fields);
+
+    /**
+     * Selected attributes of the items after {@code afterId} that match the filter, in ascending
+     * id order. The id is always selected so callers can build a keyset cursor from the last row.
+     *
+     * @param filter  equality filters on status and email
+     * @param afterId exclusive lower bound of the id, or null to start at the beginning
+     * @param limit   maximum number of rows, or null for all remaining rows
+     */
+    List<Map<String, Object>> findProjections(List<String> fields, ItemFilter filter, Long afterId, Integer limit);
+}
@@ -1,11 +1,203 @@
 package com.siemens.internship;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
-public interface ItemRepository extends JpaRepository<Item, Long> {
-    @Query("SELECT id FROM Item")
-    List<Long> findAllIds();
+public interface ItemRepository extends JpaRepository<Item, Long>, ItemProjectionRepository, ItemPatchRepository {
+    String EXPORT_FETCH_SIZE = "500";
+
+    /**
+     * Most ids bound into one {@code IN} list; longer lookups are split into several queries.
+     */
+    int MAX_IN_LIST_SIZE = 1000;
+
+    /**
+     * Keyset page of ids in ascending order, starting strictly after the given id.
+     * Unlike loading every id up front, each call costs one index range scan of {@code limit} rows.
+     */
+    @Query("SELECT i.id FROM Item i WHERE i.id > :afterId ORDER BY i.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Limit limit);
+
+    /**
+     * Keyset page of the ids in one status, served by {@code idx_item_status_id}.
+     */
+    @Query("SELECT i.id FROM Item i WHERE i.status = :status AND i.id > :afterId ORDER BY i.id")
+    List<Long> findIdsByStatusAfter(@Param("status") String status, @Param("afterId") Long afterId, Limit limit);
+
+    /**
+     * Items whose id is in the given list, in no particular order. Missing ids are skipped.
+     */
+    List<Item> findByIdIn(Collection<Long> ids);
+
+    /**
+     * Keyset page of items ordered by id, starting strictly after the given id.
+     */
+    List<Item> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    /**
+     * Like {@link #findByIdGreaterThanOrderByIdAsc} but takes a write lock on every returned row
+     * until the caller's transaction ends, including rows the caller does not change.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Item i WHERE i.id > :afterId ORDER BY i.id")
+    List<Item> findForUpdateAfter(@Param("afterId") Long afterId, Limit limit);
+
+    /**
+     * Keyset page of the items in one status, served by {@code idx_item_status_id}.
+     */
+    List<Item> findByStatusAndIdGreaterThanOrderByIdAsc(String status, Long id, Limit limit);
+
+    /**
+     * Keyset page of the items with one email address, served by {@code idx_item_email_id}.
+     */
+    List<Item> findByEmailAndIdGreaterThanOrderByIdAsc(String email, Long id, Limit limit);
+
+    /**
+     * Keyset page of the items matching both a status and an email address.
+     */
+    List<Item> findByStatusAndEmailAndIdGreaterThanOrderByIdAsc(String status, String email, Long id, Limit limit);
+
+    /**
+     * Keyset page of the ids flagged as needing work, served by {@code idx_item_needs_work_id},
+     * so a run costs work proportional to the rows changed since they were last processed.
+     */
+    @Query("SELECT i.id FROM Item i WHERE i.needsWork = true AND i.id > :afterId ORDER BY i.id")
+    List<Long> findIdsNeedingWorkAfter(@Param("afterId") Long afterId, Limit limit);
+
+    @Query("SELECT COUNT(i) FROM Item i WHERE i.needsWork = true")
+    long countNeedingWork();
+
+    /**
+     * Streams the whole table in id order through a server-side cursor, fetching
+     * {@code EXPORT_FETCH_SIZE} rows per round trip. Must be consumed inside a transaction and
+     * closed afterwards; entities are loaded read-only, without dirty-checking snapshots.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("SELECT i FROM Item i ORDER BY i.id")
+    Stream<Item> streamAll();
+
+    /**
+     * Overwrites the client-editable attributes of one item with a single UPDATE, without
+     * reading it first, and bumps its version.
+     *
+     * @return 1 if the item exists, 0 otherwise
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE Item i SET i.name = :name, i.description = :description, i.status = :status,"
+            + " i.email = :email, i.lastModified = :now, i.needsWork = true, i.version = i.version + 1"
+            + " WHERE i.id = :id")
+    int updateFields(@Param("id") Long id, @Param("name") String name, @Param("description") String description,
+                     @Param("status") String status, @Param("email") String email, @Param("now") Instant now);
+
+    /**
+     * Like {@link #updateFields} but only while the item is still at {@code expectedVersion}.
+     *
+     * @return 1 if the item exists at that version, 0 otherwise
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE Item i SET i.name = :name, i.description = :description, i.status = :status,"
+            + " i.email = :email, i.lastModified = :now, i.needsWork = true, i.version = i.version + 1"
+            + " WHERE i.id = :id AND i.version = :expectedVersion")
+    int updateFieldsIfVersion(@Param("id") Long id, @Param("name") String name,
+                              @Param("description") String description, @Param("status") String status,
+                              @Param("email") String email, @Param("now") Instant now,
+                              @Param("expectedVersion") Long expectedVersion);
+
+    /**
+     * Removes one item with a single DELETE. Unlike {@link #deleteById}, the entity is not loaded first.
+     *
+     * @return 1 if the item existed, 0 otherwise
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM Item i WHERE i.id = :id")
+    int deleteRowById(@Param("id") Long id);
+
+    /**
+     * Removes the items with the given ids with a single DELETE, without loading them.
+     * Callers keep the list within {@link #MAX_IN_LIST_SIZE} and run it in their own transaction.
+     *
+     * @return number of rows removed
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Item i WHERE i.id IN :ids")
+    int deleteRowsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Like {@link #deleteRowsByIdIn} but re-checks the filter, so a row whose status or email was
+     * changed since its id was selected is kept. A null status or email matches any value.
+     *
+     * @return number of rows removed
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Item i WHERE i.id IN :ids"
+            + " AND (:status IS NULL OR i.status = :status) AND (:email IS NULL OR i.email = :email)")
+    int deleteRowsByIdInMatching(@Param("ids") Collection<Long> ids, @Param("status") String status,
+                                 @Param("email") String email);
+
+    /**
+     * Writes the batch result of one item with a single UPDATE while it is still at
+     * {@code expectedVersion}. Unlike every other write this clears {@code needsWork}, so the
+     * next incremental run skips the item unless it is changed again.
+     *
+     * @return 1 if the item exists at that version, 0 otherwise
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE Item i SET i.status = :status, i.lastModified = :now, i.needsWork = false,"
+            + " i.version = i.version + 1 WHERE i.id = :id AND i.version = :expectedVersion")
+    int markProcessed(@Param("id") Long id, @Param("status") String status, @Param("now") Instant now,
+                      @Param("expectedVersion") Long expectedVersion);
+
+    /**
+     * Clears {@code needsWork} on items the caller has just written in its own transaction.
+     * Callers keep the list within {@link #MAX_IN_LIST_SIZE}.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Item i SET i.needsWork = false WHERE i.id IN :ids")
+    int clearNeedsWork(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Sets the status of every item in the inclusive id range with one UPDATE, without loading entities.
+     * The version is bumped so concurrent optimistic writers notice the change.
+     *
+     * @return number of rows changed
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Item i SET i.status = :status, i.lastModified = :now, i.needsWork = true,"
+            + " i.version = i.version + 1 WHERE i.id BETWEEN :fromId AND :toId")
+    int updateStatusBetween(@Param("status") String status, @Param("now") Instant now,
+                            @Param("fromId") Long fromId, @Param("toId") Long toId);
+
+    /**
+     * Like {@link #updateStatusBetween} but only for items currently in {@code currentStatus}.
+     *
+     * @return number of rows changed
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Item i SET i.status = :status, i.lastModified = :now, i.needsWork = true,"
+            + " i.version = i.version + 1 WHERE i.id BETWEEN :fromId AND :toId AND i.status = :currentStatus")
+    int updateStatusBetweenWhereStatus(@Param("status") String status, @Param("now") Instant now,
+                                       @Param("fromId") Long fromId, @Param("toId") Long toId,
+                                       @Param("currentStatus") String currentStatus);
 }
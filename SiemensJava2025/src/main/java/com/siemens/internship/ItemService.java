@@ -1,49 +1,478 @@
 package com.siemens.internship;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.OptimisticLockException;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
 
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.*;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Iterator;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.Collections;
 
+@Slf4j
 @Service
 public class ItemService {
+    private static final String PROCESSED_STATUS = "PROCESSED";
+
     @Autowired
     private ItemRepository itemRepository;
 
-    // Thread pool with bounded queue to prevent resource exhaustion
-    private final ExecutorService executor = Executors.newFixedThreadPool(
-            Runtime.getRuntime().availableProcessors());
+    @Autowired
+    private BatchProperties batchProperties;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private BatchJobRegistry batchJobRegistry;
+
+    @Autowired
+    private DeadLetterRepository deadLetterRepository;
 
-    // Thread-safe collections and counters
-    private final ConcurrentLinkedQueue<Item> processedItems = new ConcurrentLinkedQueue<>();
-    private final AtomicInteger processedCount = new AtomicInteger(0);
+    @Autowired
+    private BatchMetrics batchMetrics;
+
+    @Autowired
+    private AdaptiveConcurrencyLimiter adaptiveLimiter;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ItemCache itemCache;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Worker pool for per-item processing, chosen by items.batch.executor
+    private ExecutorService executor;
+
+    // Drives batch jobs in the background so requests can return immediately
+    private final ExecutorService dispatcher = Executors.newCachedThreadPool();
+
+    // Read-only variant of transactionTemplate for streaming reads
+    private TransactionTemplate readOnlyTransactionTemplate;
+
+    // Lost optimistic-lock races, by the path that lost them
+    private Counter restConflicts;
+    private Counter batchConflicts;
+
+    // Caps concurrent repository calls independently of the number of worker threads
+    private Semaphore dbPermits;
+
+    // Advanced after every committed write through this service; the epoch keeps values from
+    // different application runs apart
+    private final AtomicLong generation = new AtomicLong();
+    private final String generationEpoch = Long.toString(System.currentTimeMillis(), 36);
 
     public List<Item> findAll() {
         return itemRepository.findAll();
     }
 
+    /**
+     * Hands every item to the sink in id order, in constant memory.
+     *
+     * Rows come from a read-only database cursor, and each entity is detached right after the sink
+     * has consumed it, so neither the result set nor the persistence context grows with the table.
+     *
+     * @param sink receives every item, on the calling thread
+     * @return number of exported items
+     */
+    public long exportAll(Consumer<Item> sink) {
+        Long exported = readOnlyTransactionTemplate.execute(status -> {
+            long count = 0;
+            try (Stream<Item> items = itemRepository.streamAll()) {
+                Iterator<Item> iterator = items.iterator();
+                while (iterator.hasNext()) {
+                    Item item = iterator.next();
+                    sink.accept(item);
+                    entityManager.detach(item);
+                    count++;
+                }
+            }
+            return count;
+        });
+        return exported == null ? 0 : exported;
+    }
+
+    /**
+     * Keyset page of items ordered by id. Each page is a single index range scan, so its cost
+     * does not depend on how deep into the table it starts, unlike OFFSET paging.
+     *
+     * @param afterId last id of the previous page, or null for the first page
+     * @param limit   maximum number of items in the page
+     */
+    public ItemPage<Item> findPage(Long afterId, int limit) {
+        return findPage(ItemFilter.NONE, afterId, limit);
+    }
+
+    /**
+     * Like {@link #findPage(Long, int)} but only over the items matching the filter. Each filter
+     * combination has a composite index led by the filtered column, so the page is an index seek.
+     */
+    public ItemPage<Item> findPage(ItemFilter filter, Long afterId, int limit) {
+        // One extra row tells whether another page follows without a COUNT query
+        List<Item> items = findItemsAfter(filter, afterId == null ? Long.MIN_VALUE : afterId, Limit.of(limit + 1));
+        if (items.size() <= limit) {
+            return new ItemPage<>(items, null);
+        }
+        List<Item> page = items.subList(0, limit);
+        return new ItemPage<>(page, ItemPage.encodeCursor(page.get(limit - 1).getId()));
+    }
+
+    private List<Item> findItemsAfter(ItemFilter filter, Long afterId, Limit limit) {
+        if (filter.status() != null && filter.email() != null) {
+            return itemRepository.findByStatusAndEmailAndIdGreaterThanOrderByIdAsc(
+                    filter.status(), filter.email(), afterId, limit);
+        }
+        if (filter.status() != null) {
+            return itemRepository.findByStatusAndIdGreaterThanOrderByIdAsc(filter.status(), afterId, limit);
+        }
+        if (filter.email() != null) {
+            return itemRepository.findByEmailAndIdGreaterThanOrderByIdAsc(filter.email(), afterId, limit);
+        }
+        return itemRepository.findByIdGreaterThanOrderByIdAsc(afterId, limit);
+    }
+
+    /**
+     * Like {@link #findPage} but reads only the selected attributes of every item.
+     *
+     * @param fields  attributes to return, as parsed by {@link ItemFields#parse}
+     * @param afterId last id of the previous page, or null for the first page
+     * @param limit   maximum number of items in the page, or null for every remaining item
+     */
+    public ItemPage<Map<String, Object>> findFieldsPage(List<String> fields, Long afterId, Integer limit) {
+        return findFieldsPage(fields, ItemFilter.NONE, afterId, limit);
+    }
+
+    /**
+     * Like {@link #findFieldsPage(List, Long, Integer)} but only over the items matching the filter.
+     */
+    public ItemPage<Map<String, Object>> findFieldsPage(List<String> fields, ItemFilter filter,
+                                                        Long afterId, Integer limit) {
+        List<Map<String, Object>> rows = itemRepository.findProjections(
+                fields, filter, afterId, limit == null ? null : limit + 1);
+        String nextCursor = null;
+        if (limit != null && rows.size() > limit) {
+            rows = rows.subList(0, limit);
+            nextCursor = ItemPage.encodeCursor((Long) rows.get(limit - 1).get("id"));
+        }
+        if (!fields.contains("id")) {
+            // The id was only selected to build the cursor
+            rows.forEach(row -> row.remove("id"));
+        }
+        return new ItemPage<>(rows, nextCursor);
+    }
+
+    /**
+     * Resolves many ids at once with one {@code IN} query per {@link ItemRepository#MAX_IN_LIST_SIZE}
+     * ids instead of one query per id. Duplicates are ignored; found items and missing ids are
+     * returned in the order they were requested.
+     */
+    public ItemLookup findAllById(Collection<Long> ids) {
+        List<Long> distinctIds = ids.stream().filter(Objects::nonNull).distinct().toList();
+        Map<Long, Item> found = new HashMap<>();
+        for (int from = 0; from < distinctIds.size(); from += ItemRepository.MAX_IN_LIST_SIZE) {
+            List<Long> chunk = distinctIds.subList(from,
+                    Math.min(from + ItemRepository.MAX_IN_LIST_SIZE, distinctIds.size()));
+            itemRepository.findByIdIn(chunk).forEach(item -> found.put(item.getId(), item));
+        }
+
+        List<Item> items = new ArrayList<>(found.size());
+        List<Long> missingIds = new ArrayList<>();
+        for (Long id : distinctIds) {
+            Item item = found.get(id);
+            if (item != null) {
+                items.add(item);
+            } else {
+                missingIds.add(id);
+            }
+        }
+        return new ItemLookup(items, missingIds);
+    }
+
+    public Optional<Map<String, Object>> findFieldsById(Long id, List<String> fields) {
+        return itemRepository.findProjectionById(id, fields);
+    }
+
+    /**
+     * Reads an item through {@link ItemCache}, so repeated reads of hot items skip the database.
+     */
     public Optional<Item> findById(Long id) {
-        return itemRepository.findById(id);
+        return itemCache.get(id, itemRepository::findById);
     }
 
+    /**
+     * Saves the item. If it carries a version that is no longer current, the write is rejected
+     * instead of overwriting the newer row.
+     *
+     * @throws OptimisticLockingFailureException if the row was changed since the given version
+     */
     public Item save(Item item) {
-        return itemRepository.save(item);
+        try {
+            return itemRepository.save(item);
+        } catch (OptimisticLockingFailureException e) {
+            restConflicts.increment();
+            throw e;
+        } finally {
+            itemChanged(item.getId());
+        }
+    }
+
+    /**
+     * Replaces the editable attributes of an item with one conditional UPDATE, instead of the
+     * SELECT and merge that {@link #save} needs for a detached entity. Only when no row matches
+     * does a second query tell a missing item from a stale version.
+     *
+     * @param changes         new attribute values; its id and version are ignored
+     * @param expectedVersion version the caller based the change on, or null to overwrite any version
+     */
+    public ItemUpdate update(Long id, Item changes, Long expectedVersion) {
+        Instant now = Instant.now();
+        int rows = expectedVersion == null
+                ? itemRepository.updateFields(id, changes.getName(), changes.getDescription(),
+                        changes.getStatus(), changes.getEmail(), now)
+                : itemRepository.updateFieldsIfVersion(id, changes.getName(), changes.getDescription(),
+                        changes.getStatus(), changes.getEmail(), now, expectedVersion);
+        if (rows == 0) {
+            if (expectedVersion == null || !itemRepository.existsById(id)) {
+                return ItemUpdate.notFound();
+            }
+            restConflicts.increment();
+            return ItemUpdate.versionMismatch();
+        }
+        itemChanged(id);
+
+        Item updated = new Item(id, changes.getName(), changes.getDescription(), changes.getStatus(),
+                changes.getEmail(), expectedVersion == null ? null : expectedVersion + 1, now, true);
+        return ItemUpdate.updated(updated);
+    }
+
+    /**
+     * Applies a partial update with one UPDATE of only the given columns, see {@link #update}.
+     *
+     * @param changes new values by attribute, all in {@link ItemFields#EDITABLE}; must not be empty
+     */
+    public ItemUpdate patch(Long id, Map<String, Object> changes, Long expectedVersion) {
+        int rows = itemRepository.patch(id, changes, Instant.now(), expectedVersion);
+        if (rows == 0) {
+            if (expectedVersion == null || !itemRepository.existsById(id)) {
+                return ItemUpdate.notFound();
+            }
+            restConflicts.increment();
+            return ItemUpdate.versionMismatch();
+        }
+        itemChanged(id);
+        return ItemUpdate.updated(null);
+    }
+
+    /**
+     * Deletes an item with one DELETE statement.
+     *
+     * @return whether the item existed
+     */
+    public boolean deleteById(Long id) {
+        boolean deleted = itemRepository.deleteRowById(id) > 0;
+        if (deleted) {
+            itemChanged(id);
+        }
+        return deleted;
+    }
+
+    /**
+     * Deletes the given items in slices of {@code items.batch.chunk-size}, one DELETE and one
+     * transaction per slice, so row locks are only held for one slice at a time. Ids without an
+     * item are skipped.
+     */
+    public BulkDeleteReport deleteAllById(Collection<Long> ids) {
+        long start = System.nanoTime();
+        List<Long> distinctIds = ids.stream().filter(Objects::nonNull).distinct().toList();
+        int chunkSize = deleteChunkSize();
+        long deleted = 0;
+        int chunks = 0;
+        for (int from = 0; from < distinctIds.size(); from += chunkSize) {
+            deleted += deleteChunk(distinctIds.subList(from, Math.min(from + chunkSize, distinctIds.size())));
+            chunks++;
+        }
+        return new BulkDeleteReport(deleted, chunks, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Deletes every item matching the filter in slices, like {@link #deleteAllById}. Each slice
+     * of ids is found with a keyset scan over the filter index, and its DELETE re-applies the
+     * filter, so rows changed concurrently so that they no longer match are kept.
+     *
+     * @throws IllegalArgumentException if the filter is empty, which would delete the whole table
+     */
+    public BulkDeleteReport deleteAllMatching(ItemFilter filter) {
+        if (filter.isEmpty()) {
+            throw new IllegalArgumentException("A bulk delete needs a filter");
+        }
+        long start = System.nanoTime();
+        int chunkSize = deleteChunkSize();
+        long deleted = 0;
+        int chunks = 0;
+        Long afterId = null;
+        while (true) {
+            List<Long> ids = itemRepository.findProjections(List.of("id"), filter, afterId, chunkSize).stream()
+                    .map(row -> (Long) row.get("id"))
+                    .toList();
+            if (ids.isEmpty()) {
+                break;
+            }
+            Integer rows = transactionTemplate.execute(tx ->
+                    itemRepository.deleteRowsByIdInMatching(ids, filter.status(), filter.email()));
+            itemsChanged(ids);
+            deleted += rows;
+            chunks++;
+            afterId = ids.get(ids.size() - 1);
+        }
+        log.info("Bulk delete matching {} removed {} rows in {} chunks", filter, deleted, chunks);
+        return new BulkDeleteReport(deleted, chunks, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private int deleteChunkSize() {
+        return Math.min(batchProperties.getChunkSize(), ItemRepository.MAX_IN_LIST_SIZE);
+    }
+
+    private int deleteChunk(List<Long> ids) {
+        Integer rows = transactionTemplate.execute(tx -> itemRepository.deleteRowsByIdIn(ids));
+        itemsChanged(ids);
+        return rows;
+    }
+
+    /**
+     * Inserts every item in one transaction. Ids come from the pooled sequence without a round
+     * trip per row, so Hibernate groups the INSERTs into JDBC batches of
+     * {@code hibernate.jdbc.batch_size}; the persistence context is flushed and cleared every
+     * {@code items.batch.chunk-size} items to keep memory flat.
+     *
+     * @param items valid new items; ids and versions they carry are ignored
+     */
+    public BulkCreateReport createAll(List<Item> items) {
+        long start = System.nanoTime();
+        int chunkSize = batchProperties.getChunkSize();
+        transactionTemplate.executeWithoutResult(tx -> {
+            for (int i = 0; i < items.size(); i++) {
+                Item item = items.get(i);
+                item.setId(null);
+                item.setVersion(null);
+                entityManager.persist(item);
+                if ((i + 1) % chunkSize == 0) {
+                    entityManager.flush();
+                    entityManager.clear();
+                }
+            }
+        });
+        generation.incrementAndGet();
+
+        BulkCreateReport report = BulkCreateReport.of(items.size(), start);
+        log.info("Bulk create inserted {} items at {} rows/s", report.created(), Math.round(report.rowsPerSecond()));
+        return report;
+    }
+
+    /**
+     * Opaque token that changes whenever an item is written through this service, so list
+     * responses can be revalidated without reading the table. Read it before the data it describes.
+     */
+    public String currentGeneration() {
+        return generationEpoch + "-" + generation.get();
+    }
+
+    // Called once a write has committed
+    private void itemChanged(Long id) {
+        if (id != null) {
+            itemCache.evict(id);
+        }
+        generation.incrementAndGet();
+    }
+
+    private void itemsChanged(Collection<Long> ids) {
+        itemCache.evictAll(ids);
+        generation.incrementAndGet();
+    }
+
+    private void itemsChanged(long fromId, long toId) {
+        itemCache.evictRange(fromId, toId);
+        generation.incrementAndGet();
+    }
+
+    @PostConstruct
+    void init() {
+        executor = createExecutor(batchProperties.getExecutor());
+        dbPermits = new Semaphore(batchProperties.getMaxDbConcurrency());
+        readOnlyTransactionTemplate = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        readOnlyTransactionTemplate.setReadOnly(true);
+        restConflicts = conflictCounter("rest");
+        batchConflicts = conflictCounter("batch");
     }
 
-    public void deleteById(Long id) {
-        itemRepository.deleteById(id);
+    private Counter conflictCounter(String path) {
+        return Counter.builder("items.update.conflicts")
+                .description("Item writes rejected by the optimistic version check")
+                .tag("path", path)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Creates the worker pool for the configured execution mode.
+     *
+     * FIXED keeps one platform thread per core, which suits CPU-bound work, or one per possible
+     * permit when the adaptive limiter is in charge of concurrency. VIRTUAL starts a
+     * virtual thread per item so that blocked items do not hold a core; it needs Java 21, and on
+     * older runtimes it falls back to a pool of {@code items.batch.max-in-flight} platform threads.
+     */
+    private ExecutorService createExecutor(BatchProperties.ExecutorMode mode) {
+        if (mode == BatchProperties.ExecutorMode.VIRTUAL) {
+            try {
+                return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+                log.warn("Virtual threads are not available on Java {}, using {} platform threads instead",
+                        Runtime.version().feature(), batchProperties.getMaxInFlight());
+                ThreadPoolExecutor pool = new ThreadPoolExecutor(
+                        batchProperties.getMaxInFlight(), batchProperties.getMaxInFlight(),
+                        60, TimeUnit.SECONDS, new LinkedBlockingQueue<>());
+                pool.allowCoreThreadTimeOut(true);
+                return pool;
+            }
+        }
+        int threads = batchProperties.isAdaptiveConcurrencyEnabled()
+                ? batchProperties.getAdaptiveMaxLimit()
+                : Runtime.getRuntime().availableProcessors();
+        return Executors.newFixedThreadPool(threads);
     }
 
     @PreDestroy
     public void cleanup() {
+        dispatcher.shutdown();
         executor.shutdown();
         try {
             if (!executor.awaitTermination(60, TimeUnit.SECONDS)) {
@@ -52,6 +481,8 @@ public class ItemService {
         } catch (InterruptedException e) {
             executor.shutdownNow();
             Thread.currentThread().interrupt();
+        } finally {
+            dispatcher.shutdownNow();
         }
     }
 
@@ -60,41 +491,456 @@ public class ItemService {
      * 
      * Improvements made:
      * 1. Returns CompletableFuture for proper async operation
-     * 2. Uses thread-safe collections and atomic counters
+     * 2. Collects results in a queue owned by this invocation, so concurrent or repeated
+     *    runs never see each other's items and the results are freed with the returned list
      * 3. Properly waits for all processing to complete
-     * 4. Implements proper error handling and propagation
+     * 4. Failed items are logged and left out instead of discarding the whole run
      * 5. Uses bounded thread pool with optimal size
      * 
-     * @return CompletableFuture<List<Item>> containing all processed items
+     * @return CompletableFuture<List<Item>> containing the items processed by this run
      */
     public CompletableFuture<List<Item>> processItemsAsync() {
-        List<Long> itemIds = itemRepository.findAllIds();
+        return CompletableFuture.supplyAsync(() -> {
+            ConcurrentLinkedQueue<Item> processedItems = new ConcurrentLinkedQueue<>();
+            processItemsStreaming(processedItems::offer);
+            return new ArrayList<>(processedItems);
+        }, dispatcher);
+    }
+
+    /**
+     * Starts processing every item in the background and returns immediately.
+     *
+     * @return the registered job, used to poll progress and page through results
+     * @throws RejectedExecutionException if the job registry is full of running jobs
+     */
+    public BatchJob startBatchJob() {
+        BatchJob job = batchJobRegistry.register(itemRepository.count());
+        CompletableFuture.runAsync(() -> processItemsStreaming(job), dispatcher)
+                .whenComplete((v, error) -> job.finish(error));
+        return job;
+    }
+
+    /**
+     * Starts a background job that only processes items needing work: items written since the
+     * batch last processed them, found through the indexed {@code needsWork} flag.
+     *
+     * Every write sets the flag and only the batch's own write of a processed item clears it, so
+     * a change made while a run is in progress is picked up by the next run, and steady-state runs
+     * cost work proportional to the rows changed in between. Items that fail keep the flag and are
+     * dead-lettered, so they are retried by the next incremental run as well as by
+     * {@link #startRedriveJob()}.
+     *
+     * @return the registered job, used to poll progress and page through results
+     * @throws RejectedExecutionException if the job registry is full of running jobs
+     */
+    public BatchJob startIncrementalBatchJob() {
+        BatchJob job = batchJobRegistry.register(itemRepository.countNeedingWork());
+        CompletableFuture.runAsync(() -> runBatch(itemRepository::findIdsNeedingWorkAfter, job), dispatcher)
+                .whenComplete((v, error) -> job.finish(error));
+        return job;
+    }
+
+    /**
+     * Starts a background job that reprocesses only the dead-lettered items.
+     * Entries are removed as their items succeed, as in any other run; items that fail again
+     * stay in the table.
+     *
+     * @return the registered job, used to poll progress and page through results
+     * @throws RejectedExecutionException if the job registry is full of running jobs
+     */
+    public BatchJob startRedriveJob() {
+        int orphans = deadLetterRepository.deleteOrphans();
+        if (orphans > 0) {
+            log.info("Dropped {} dead letters whose items no longer exist", orphans);
+        }
+        BatchJob job = batchJobRegistry.register(deadLetterRepository.count());
+        CompletableFuture.runAsync(() -> runBatch(deadLetterRepository::findItemIdsAfter, job), dispatcher)
+                .whenComplete((v, error) -> job.finish(error));
+        return job;
+    }
+
+    /**
+     * Keyset page of dead-lettered items, ordered by item id.
+     */
+    public List<DeadLetter> findDeadLetters(Long afterItemId, int limit) {
+        return deadLetterRepository.findByItemIdGreaterThanOrderByItemIdAsc(
+                afterItemId == null ? Long.MIN_VALUE : afterItemId, Limit.of(limit));
+    }
 
-        List<CompletableFuture<Void>> futures = itemIds.stream()
-                .map(id -> CompletableFuture.runAsync(() -> processItem(id), executor))
+    public Optional<BatchJob> findBatchJob(String jobId) {
+        return batchJobRegistry.find(jobId);
+    }
+
+    /**
+     * Loads one page of a job's processed items, in the order they were processed.
+     */
+    public List<Item> findBatchJobResults(BatchJob job, int page, int size) {
+        List<Long> ids = job.resultIds(page, size);
+        Map<Long, Item> itemsById = itemRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        return ids.stream()
+                .map(itemsById::get)
+                .filter(Objects::nonNull)
                 .collect(Collectors.toList());
+    }
 
-        return CompletableFuture.allOf(
-                futures.toArray(new CompletableFuture[0])).thenApply(v -> new ArrayList<>(processedItems));
+    /**
+     * Processes every item and hands each outcome to the listener as soon as it is known.
+     *
+     * Unlike {@link #processItemsAsync()} nothing is collected: at most
+     * {@code items.batch.max-in-flight} items are being processed at once and every saved item
+     * is released once the listener has consumed it, so memory does not grow with the table size.
+     * A failing item is reported to the listener and does not stop the run.
+     * Blocks until every item has been processed.
+     *
+     * @param listener receives every processed and every failed item
+     * @return number of items successfully processed
+     */
+    public long processItemsStreaming(BatchListener listener) {
+        return runBatch(itemRepository::findIdsAfter, listener).processed();
+    }
+
+    /**
+     * Core of the per-item batch paths.
+     *
+     * Ids are pulled lazily in keyset pages of {@code items.batch.page-size}, so the first items
+     * start processing after one short query and only one page of ids is held at a time.
+     * The next page is fetched while the previous one is still being worked on.
+     *
+     * Each item is retried with backoff; items failing every attempt are dead-lettered and
+     * counted, the rest of the run carries on. With {@code items.batch.adaptive-concurrency-enabled}
+     * the number of items running at once is additionally governed by {@link AdaptiveConcurrencyLimiter}.
+     *
+     * @param idPages returns the next page of ids strictly after the given id, in ascending order
+     * @param listener receives every processed and every failed item
+     * @return BatchReport with the processed and failed counts of the run
+     */
+    private BatchReport runBatch(BiFunction<Long, Limit, List<Long>> idPages, BatchListener listener) {
+        long start = System.nanoTime();
+        int maxInFlight = batchProperties.getMaxInFlight();
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        AtomicLong emitted = new AtomicLong();
+        AtomicLong failed = new AtomicLong();
+        Limit pageSize = Limit.of(batchProperties.getPageSize());
+        boolean adaptive = batchProperties.isAdaptiveConcurrencyEnabled();
+
+        try {
+            Long lastId = Long.MIN_VALUE;
+            List<Long> page = idPages.apply(lastId, pageSize);
+            scan:
+            while (!page.isEmpty()) {
+                for (Long id : page) {
+                    inFlight.acquire();
+                    if (failure.get() != null) {
+                        inFlight.release();
+                        break scan;
+                    }
+                    if (adaptive) {
+                        adaptiveLimiter.acquire();
+                    }
+                    submitItem(id, listener, adaptive, inFlight, failure, emitted, failed);
+                }
+                lastId = page.get(page.size() - 1);
+                page = page.size() < pageSize.max() ? List.of() : idPages.apply(lastId, pageSize);
+            }
+            // Wait for the tail of in-flight items before reporting
+            inFlight.acquire(maxInFlight);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException("Batch run interrupted", e);
+        }
+
+        if (failure.get() != null) {
+            throw failure.get() instanceof CompletionException completion
+                    ? completion
+                    : new CompletionException(failure.get());
+        }
+        BatchReport report = BatchReport.of(emitted.get(), failed.get(), start);
+        log.info("Per-item batch run finished: {}", report);
+        return report;
+    }
+
+    private void submitItem(Long id, BatchListener listener, boolean adaptive, Semaphore inFlight,
+                            AtomicReference<Throwable> failure, AtomicLong emitted, AtomicLong failed) {
+        batchMetrics.taskSubmitted();
+        CompletableFuture.supplyAsync(() -> {
+                    batchMetrics.taskStarted();
+                    long startNanos = System.nanoTime();
+                    boolean success = false;
+                    try {
+                        Item item = processItemWithRetry(id, listener);
+                        success = true;
+                        return item;
+                    } finally {
+                        batchMetrics.taskFinished();
+                        if (adaptive) {
+                            adaptiveLimiter.release(System.nanoTime() - startNanos, success);
+                        }
+                    }
+                }, executor)
+                .whenComplete((item, error) -> {
+                    try {
+                        if (error != null) {
+                            failed.incrementAndGet();
+                            batchMetrics.getFailedCounter().increment();
+                            listener.onFailed(id, error.getCause() != null ? error.getCause() : error);
+                        } else if (item != null) {
+                            batchMetrics.getProcessedCounter().increment();
+                            listener.onProcessed(item);
+                            emitted.incrementAndGet();
+                        }
+                    } catch (RuntimeException e) {
+                        failure.compareAndSet(null, e);
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+    }
+
+    /**
+     * Processes every item in id-ordered chunks using the configured chunk size.
+     *
+     * @return BatchReport with the number of processed items and the achieved throughput
+     */
+    public BatchReport processItemsChunked() {
+        return processItemsChunked(batchProperties.getChunkSize());
+    }
+
+    /**
+     * Set-based alternative to {@link #processItemsAsync()}.
+     *
+     * Each chunk is read and write-locked with a single keyset query, updated in memory and flushed in one
+     * transaction, so Hibernate sends the updates as JDBC batches instead of one
+     * SELECT and one UPDATE transaction per item. The persistence context is cleared after
+     * every chunk to keep memory bounded by the chunk size.
+     *
+     * @param chunkSize number of items per chunk and per transaction
+     * @return BatchReport with the number of processed items and the achieved throughput
+     */
+    public BatchReport processItemsChunked(int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive");
+        }
+        long start = System.nanoTime();
+        long processed = 0;
+        Long lastId = Long.MIN_VALUE;
+
+        while (true) {
+            Chunk chunk = processChunkWithConflictRetry(lastId, chunkSize);
+            if (chunk == null || chunk.size() == 0) {
+                break;
+            }
+            processed += chunk.size();
+            lastId = chunk.lastId();
+        }
+
+        BatchReport report = BatchReport.of(processed, start);
+        log.info("Chunked batch run finished (chunk size {}): {}", chunkSize, report);
+        return report;
+    }
+
+    /**
+     * Fast path for runs whose only effect is a status change.
+     *
+     * Walks the matching ids as keyset pages of {@code items.batch.chunk-size} and issues one
+     * {@code UPDATE ... WHERE id BETWEEN} the first and last id of each page, in its own
+     * transaction. Slices follow the rows that exist, so gaps in the id sequence cost nothing, no
+     * entity is loaded into the persistence context and row locks are held for one slice at a time.
+     *
+     * @param status        status to write
+     * @param currentStatus when not null, only items currently in this status are changed
+     * @return BulkUpdateReport with the affected-row count of every slice
+     */
+    public BulkUpdateReport bulkUpdateStatus(String status, String currentStatus) {
+        long start = System.nanoTime();
+        List<BulkUpdateReport.ChunkUpdate> chunks = new ArrayList<>();
+        long updated = 0;
+        Limit chunkSize = Limit.of(batchProperties.getChunkSize());
+
+        Long afterId = Long.MIN_VALUE;
+        List<Long> ids;
+        while (!(ids = currentStatus == null
+                ? itemRepository.findIdsAfter(afterId, chunkSize)
+                : itemRepository.findIdsByStatusAfter(currentStatus, afterId, chunkSize)).isEmpty()) {
+            long fromId = ids.get(0);
+            long toId = ids.get(ids.size() - 1);
+            Integer rows = transactionTemplate.execute(tx -> currentStatus == null
+                    ? itemRepository.updateStatusBetween(status, Instant.now(), fromId, toId)
+                    : itemRepository.updateStatusBetweenWhereStatus(status, Instant.now(), fromId, toId, currentStatus));
+            itemsChanged(fromId, toId);
+            chunks.add(new BulkUpdateReport.ChunkUpdate(fromId, toId, rows));
+            updated += rows;
+            afterId = toId;
+        }
+
+        BulkUpdateReport report = new BulkUpdateReport(status, updated, chunks,
+                (System.nanoTime() - start) / 1_000_000);
+        log.info("Bulk status update to {} changed {} rows in {} chunks", status, updated, chunks.size());
+        return report;
+    }
+
+    /**
+     * Runs one chunk transaction, re-reading and reapplying it when a concurrent writer changed
+     * one of its rows in the meantime.
+     */
+    private Chunk processChunkWithConflictRetry(Long afterId, int chunkSize) {
+        for (int conflicts = 0; ; conflicts++) {
+            try {
+                Chunk chunk = transactionTemplate.execute(status -> processChunk(afterId, chunkSize));
+                if (chunk != null && chunk.size() > 0) {
+                    // After commit, so a concurrent read cannot cache the old state again
+                    itemsChanged(chunk.ids());
+                }
+                return chunk;
+            } catch (OptimisticLockingFailureException | OptimisticLockException e) {
+                batchConflicts.increment();
+                entityManager.clear();
+                if (conflicts >= batchProperties.getConflictMaxRetries()) {
+                    throw e;
+                }
+                log.debug("Chunk after id {} lost an update race, retrying", afterId);
+            }
+        }
+    }
+
+    private Chunk processChunk(Long afterId, int chunkSize) {
+        List<Item> items = itemRepository.findForUpdateAfter(afterId, Limit.of(chunkSize));
+        if (items.isEmpty()) {
+            return new Chunk(List.of(), afterId);
+        }
+        items.forEach(item -> item.setStatus(PROCESSED_STATUS));
+        entityManager.flush();
+        entityManager.clear();
+        // Every row of the chunk stays locked until commit, so no concurrent change is cleared by mistake
+        List<Long> ids = items.stream().map(Item::getId).toList();
+        for (int from = 0; from < ids.size(); from += ItemRepository.MAX_IN_LIST_SIZE) {
+            List<Long> slice = ids.subList(from, Math.min(from + ItemRepository.MAX_IN_LIST_SIZE, ids.size()));
+            itemRepository.clearNeedsWork(slice);
+            deadLetterRepository.deleteRowsByItemIdIn(slice);
+        }
+        return new Chunk(ids, items.get(items.size() - 1).getId());
+    }
+
+    private record Chunk(List<Long> ids, Long lastId) {
+
+        int size() {
+            return ids.size();
+        }
+    }
+
+    /**
+     * Runs {@link #processItem} up to {@code items.batch.retry-max-attempts} times with
+     * exponential backoff and full jitter between attempts. When the last attempt fails the
+     * item is written to the dead-letter table and the error is rethrown; when an attempt
+     * succeeds, in any kind of run, an entry left by an earlier run is removed.
+     */
+    private Item processItemWithRetry(Long id, BatchListener listener) {
+        int maxAttempts = Math.max(batchProperties.getRetryMaxAttempts(), 1);
+        for (int attempt = 1; ; attempt++) {
+            try {
+                Item item = processItem(id);
+                clearDeadLetter(id);
+                return item;
+            } catch (CompletionException e) {
+                if (attempt >= maxAttempts || Thread.currentThread().isInterrupted()) {
+                    log.warn("Batch item {} failed after {} attempts", id, attempt, e.getCause());
+                    deadLetter(id, attempt, e.getCause());
+                    throw e;
+                }
+                batchMetrics.getRetriedCounter().increment();
+                listener.onRetry(id, attempt, e.getCause());
+                backoff(attempt);
+            }
+        }
+    }
+
+    private void backoff(int attempt) {
+        long initial = batchProperties.getRetryInitialBackoff().toMillis();
+        long ceiling = Math.min(batchProperties.getRetryMaxBackoff().toMillis(),
+                initial << Math.min(attempt - 1, 30));
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException("Retry backoff interrupted", e);
+        }
+    }
+
+    private void clearDeadLetter(Long id) {
+        try {
+            deadLetterRepository.deleteRowByItemId(id);
+        } catch (RuntimeException e) {
+            log.error("Could not clear the dead letter of item {}", id, e);
+        }
+    }
+
+    private void deadLetter(Long id, int attempts, Throwable error) {
+        try {
+            String message = String.valueOf(error);
+            if (message.length() > DeadLetter.MAX_ERROR_LENGTH) {
+                message = message.substring(0, DeadLetter.MAX_ERROR_LENGTH);
+            }
+            int previousAttempts = deadLetterRepository.findById(id).map(DeadLetter::getAttempts).orElse(0);
+            deadLetterRepository.save(new DeadLetter(id, message, previousAttempts + attempts, Instant.now()));
+        } catch (RuntimeException e) {
+            log.error("Could not dead-letter item {}", id, e);
+        }
     }
 
     /**
      * Processes a single item with proper error handling.
+     *
+     * If the row is changed by someone else between the read and the save, the item is
+     * re-read and processed again, up to {@code items.batch.conflict-max-retries} times, so the
+     * batch never overwrites a concurrent update.
      * 
      * @param id The ID of the item to process
+     * @return the saved item, or null if it no longer exists
      */
-    private void processItem(Long id) {
+    private Item processItem(Long id) {
+        for (int conflicts = 0; ; conflicts++) {
+            try {
+                return processItemOnce(id);
+            } catch (CompletionException e) {
+                if (!(e.getCause() instanceof OptimisticLockingFailureException)) {
+                    throw e;
+                }
+                batchConflicts.increment();
+                if (conflicts >= batchProperties.getConflictMaxRetries()) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private Item processItemOnce(Long id) {
         try {
-            Optional<Item> itemOpt = itemRepository.findById(id);
-            if (itemOpt.isPresent()) {
-                Item item = itemOpt.get();
-                Thread.sleep(100);
+            Timer.Sample find = Timer.start();
+            Optional<Item> itemOpt = withDbPermit(() -> itemRepository.findById(id));
+            find.stop(batchMetrics.getFindTimer());
+            if (itemOpt.isEmpty()) {
+                return null;
+            }
+            Item item = itemOpt.get();
+            Timer.Sample work = Timer.start();
+            Thread.sleep(batchProperties.getSimulatedWorkMillis());
+            work.stop(batchMetrics.getWorkTimer());
 
-                item.setStatus("PROCESSED");
-                Item savedItem = itemRepository.save(item);
-                processedItems.offer(savedItem);
-                processedCount.incrementAndGet();
+            Instant now = Instant.now();
+            Timer.Sample save = Timer.start();
+            int rows = withDbPermit(() -> itemRepository.markProcessed(id, PROCESSED_STATUS, now, item.getVersion()));
+            save.stop(batchMetrics.getSaveTimer());
+            if (rows == 0) {
+                // Changed or deleted since the read; processItem re-reads it
+                throw new ObjectOptimisticLockingFailureException(Item.class, id);
             }
+            itemChanged(id);
+            item.setStatus(PROCESSED_STATUS);
+            item.setLastModified(now);
+            item.setNeedsWork(false);
+            item.setVersion(item.getVersion() + 1);
+            return item;
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
             throw new CompletionException("Processing interrupted", e);
@@ -103,4 +949,15 @@ public class ItemService {
         }
     }
 
+    /**
+     * Runs a repository call while holding one of the {@code items.batch.max-db-concurrency} permits.
+     */
+    private <T> T withDbPermit(Supplier<T> call) throws InterruptedException {
+        dbPermits.acquire();
+        try {
+            return call.get();
+        } finally {
+            dbPermits.release();
+        }
+    }
 }
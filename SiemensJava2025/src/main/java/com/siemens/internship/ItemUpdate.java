@@ -0,0 +1,30 @@
+package com.siemens.internship;
+
+/**
+ * Outcome of an in-place item update.
+ *
+ * @param outcome whether the row was changed and, if not, why
+ * @param item    the item as written when a full update succeeded, null otherwise and for patches.
+ *                Its version is only known, and set, when the update was conditional on one.
+ */
+public record ItemUpdate(Outcome outcome, Item item) {
+
+    public enum Outcome {
+        UPDATED,
+        NOT_FOUND,
+        // The item exists but is no longer at the expected version
+        VERSION_MISMATCH
+    }
+
+    static ItemUpdate updated(Item item) {
+        return new ItemUpdate(Outcome.UPDATED, item);
+    }
+
+    static ItemUpdate notFound() {
+        return new ItemUpdate(Outcome.NOT_FOUND, null);
+    }
+
+    static ItemUpdate versionMismatch() {
+        return new ItemUpdate(Outcome.VERSION_MISMATCH, null);
+    }
+}
@@ -0,0 +1,85 @@
+package com.siemens.internship;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimiterTests {
+
+	private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+	private static final long SLOW = TimeUnit.SECONDS.toNanos(2);
+
+	private MeterRegistry registry;
+	private AdaptiveConcurrencyLimiter limiter;
+
+	@BeforeEach
+	void setUp() {
+		BatchProperties properties = new BatchProperties();
+		properties.setAdaptiveInitialLimit(4);
+		properties.setAdaptiveMinLimit(1);
+		properties.setAdaptiveMaxLimit(6);
+		properties.setAdaptiveLatencyThreshold(Duration.ofSeconds(1));
+		properties.setAdaptiveBackoffRatio(0.5);
+		registry = new SimpleMeterRegistry();
+		limiter = new AdaptiveConcurrencyLimiter(properties, registry);
+	}
+
+	@Test
+	void fastItemsUnderLoad_IncreaseLimitUpToMax() throws Exception {
+		for (int i = 0; i < 10; i++) {
+			for (int j = 0; j < limiter.getLimit(); j++) {
+				limiter.acquire();
+			}
+			int held = limiter.getInFlight();
+			for (int j = 0; j < held; j++) {
+				limiter.release(FAST, true);
+			}
+		}
+
+		assertEquals(6, limiter.getLimit());
+		assertEquals(6.0, registry.get("items.batch.limiter.limit").gauge().value());
+		assertTrue(registry.get("items.batch.limiter.decisions").tag("decision", "increase").counter().count() > 0);
+	}
+
+	@Test
+	void slowOrFailedItems_DecreaseLimitDownToMin() throws Exception {
+		limiter.acquire();
+		limiter.release(SLOW, true);
+		assertEquals(2, limiter.getLimit());
+
+		limiter.acquire();
+		limiter.release(FAST, false);
+		limiter.acquire();
+		limiter.release(FAST, false);
+		assertEquals(1, limiter.getLimit());
+		assertEquals(2.0, registry.get("items.batch.limiter.decisions").tag("decision", "decrease").counter().count());
+	}
+
+	@Test
+	void acquire_BlocksAtLimitUntilRelease() throws Exception {
+		for (int i = 0; i < 4; i++) {
+			limiter.acquire();
+		}
+
+		CompletableFuture<Void> blocked = CompletableFuture.runAsync(() -> {
+			try {
+				limiter.acquire();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		});
+		assertThrows(TimeoutException.class, () -> blocked.get(200, TimeUnit.MILLISECONDS));
+
+		limiter.release(FAST, true);
+		blocked.get(5, TimeUnit.SECONDS);
+		assertEquals(4, limiter.getInFlight());
+	}
+}
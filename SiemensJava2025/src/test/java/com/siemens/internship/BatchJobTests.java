@@ -0,0 +1,38 @@
+package com.siemens.internship;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchJobTests {
+
+	@Test
+	void resultIds_PagesAcrossStorageBlocksInCompletionOrder() {
+		BatchJob job = new BatchJob(10_000);
+		LongStream.rangeClosed(1, 10_000).forEach(id -> job.onProcessed(item(id)));
+
+		List<Long> page = job.resultIds(4, 1_000);
+
+		assertEquals(LongStream.rangeClosed(4_001, 5_000).boxed().toList(), page);
+		assertEquals(List.of(9_999L, 10_000L), job.resultIds(4_999, 2));
+		assertEquals(10_000, job.toStatus().processed());
+	}
+
+	@Test
+	void resultIds_BeyondTheLastResult_IsEmpty() {
+		BatchJob job = new BatchJob(1);
+		job.onProcessed(item(7L));
+
+		assertEquals(List.of(7L), job.resultIds(0, 10));
+		assertEquals(List.of(), job.resultIds(1, 10));
+	}
+
+	private static Item item(long id) {
+		Item item = new Item();
+		item.setId(id);
+		return item;
+	}
+}
@@ -0,0 +1,146 @@
+package com.siemens.internship;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotencyStoreTests {
+
+	private IdempotencyStore store;
+
+	@BeforeEach
+	void setUp() {
+		store = new IdempotencyStore(new IdempotencyProperties(), new SimpleMeterRegistry());
+	}
+
+	@Test
+	void concurrentDuplicates_RunCreationOnceAndShareTheResult() throws Exception {
+		AtomicInteger creations = new AtomicInteger();
+		CountDownLatch release = new CountDownLatch(1);
+		ExecutorService clients = Executors.newFixedThreadPool(8);
+		try {
+			List<CompletableFuture<IdempotencyStore.Result>> results = IntStream.range(0, 8)
+					.mapToObj(i -> CompletableFuture.supplyAsync(() -> store.execute("key", "payload", () -> {
+						creations.incrementAndGet();
+						await(release);
+						return item(1L);
+					}), clients))
+					.toList();
+			// Let every client reach the store before the first creation finishes
+			Thread.sleep(200);
+			release.countDown();
+
+			List<IdempotencyStore.Result> done = results.stream().map(CompletableFuture::join).toList();
+			assertEquals(1, creations.get());
+			assertEquals(1, done.stream().filter(r -> r.outcome() == IdempotencyStore.Outcome.CREATED).count());
+			assertEquals(7, done.stream().filter(r -> r.outcome() == IdempotencyStore.Outcome.REPLAYED).count());
+			assertTrue(done.stream().allMatch(r -> r.item().getId() == 1L));
+		} finally {
+			clients.shutdownNow();
+		}
+	}
+
+	@Test
+	void keyReusedWithOtherPayload_IsRefused() {
+		store.execute("key", "payload", () -> item(1L));
+
+		IdempotencyStore.Result result = store.execute("key", "other payload", () -> item(2L));
+
+		assertEquals(IdempotencyStore.Outcome.KEY_REUSED, result.outcome());
+		assertNull(result.item());
+	}
+
+	@Test
+	void retryWhileCreationOutlastsTheWaitTimeout_IsInProgress() throws Exception {
+		IdempotencyProperties properties = new IdempotencyProperties();
+		properties.setWaitTimeout(Duration.ofMillis(100));
+		store = new IdempotencyStore(properties, new SimpleMeterRegistry());
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		CompletableFuture<IdempotencyStore.Result> first = CompletableFuture.supplyAsync(
+				() -> store.execute("key", "payload", () -> {
+					started.countDown();
+					await(release);
+					return item(1L);
+				}));
+		await(started);
+
+		IdempotencyStore.Result retry = store.execute("key", "payload", () -> item(2L));
+		release.countDown();
+
+		assertEquals(IdempotencyStore.Outcome.IN_PROGRESS, retry.outcome());
+		assertNull(retry.item());
+		assertEquals(IdempotencyStore.Outcome.CREATED, first.get(5, TimeUnit.SECONDS).outcome());
+		assertEquals(IdempotencyStore.Outcome.REPLAYED, store.execute("key", "payload", () -> item(3L)).outcome());
+	}
+
+	@Test
+	void runningCreation_IsNotEvictedBySizePressure() throws Exception {
+		IdempotencyProperties properties = new IdempotencyProperties();
+		properties.setMaximumSize(2);
+		properties.setWaitTimeout(Duration.ofMillis(50));
+		store = new IdempotencyStore(properties, new SimpleMeterRegistry());
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		CompletableFuture<IdempotencyStore.Result> running = CompletableFuture.supplyAsync(
+				() -> store.execute("running", "payload", () -> {
+					started.countDown();
+					await(release);
+					return item(1L);
+				}));
+		await(started);
+
+		// Replayed keys are used more often than the running one, so an eviction would pick it
+		IntStream.range(0, 200).forEach(i -> store.execute("done-" + i % 20, "payload", () -> item((long) i)));
+		Thread.sleep(200);
+		AtomicInteger duplicates = new AtomicInteger();
+		IdempotencyStore.Result retry = store.execute("running", "payload", () -> {
+			duplicates.incrementAndGet();
+			return item(2L);
+		});
+		release.countDown();
+
+		assertEquals(IdempotencyStore.Outcome.IN_PROGRESS, retry.outcome());
+		assertEquals(0, duplicates.get());
+		assertEquals(IdempotencyStore.Outcome.CREATED, running.get(5, TimeUnit.SECONDS).outcome());
+	}
+
+	@Test
+	void failedCreation_ReleasesTheKey() {
+		assertThrows(IllegalStateException.class, () -> store.execute("key", "payload", () -> {
+			throw new IllegalStateException("database down");
+		}));
+
+		IdempotencyStore.Result retry = store.execute("key", "payload", () -> item(3L));
+
+		assertEquals(IdempotencyStore.Outcome.CREATED, retry.outcome());
+		assertEquals(3L, retry.item().getId());
+	}
+
+	private static Item item(Long id) {
+		Item item = new Item();
+		item.setId(id);
+		return item;
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			assertTrue(latch.await(5, TimeUnit.SECONDS));
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(e);
+		}
+	}
+}
@@ -1,6 +1,8 @@
 package com.siemens.internship;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
 import jakarta.validation.Validation;
 import jakarta.validation.Validator;
 import jakarta.validation.ValidatorFactory;
@@ -14,20 +16,37 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.Optional;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
+import static org.hamcrest.Matchers.containsString;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
-@SpringBootTest
+@SpringBootTest(properties = "items.idempotency.wait-timeout=200ms")
 @AutoConfigureMockMvc
 class InternshipApplicationTests {
 
+	private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
 	@Autowired
 	private MockMvc mockMvc;
 
@@ -87,6 +106,206 @@ class InternshipApplicationTests {
 				.andExpect(jsonPath("$[0].name").value("Test Item"));
 	}
 
+	@Test
+	void getAllItems_WithLimit_ReturnsPageAndNextLink() throws Exception {
+		when(itemService.findPage(ItemFilter.NONE, null, 1)).thenReturn(new ItemPage<>(List.of(testItem), ItemPage.encodeCursor(1L)));
+
+		mockMvc.perform(get("/api/items").param("limit", "1"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$[0].id").value(1))
+				.andExpect(header().string("Link", containsString(
+						"cursor=" + ItemPage.encodeCursor(1L))));
+	}
+
+	@Test
+	void getAllItems_WithCursor_ContinuesAfterCursorId() throws Exception {
+		when(itemService.findPage(ItemFilter.NONE, 1L, 100)).thenReturn(new ItemPage<>(List.of(testItem), null));
+
+		mockMvc.perform(get("/api/items").param("cursor", ItemPage.encodeCursor(1L)))
+				.andExpect(status().isOk())
+				.andExpect(header().doesNotExist("Link"));
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void exportItems_StreamsEveryItemAsNdjson() throws Exception {
+		doAnswer(invocation -> {
+			Consumer<Item> sink = invocation.getArgument(0);
+			sink.accept(testItem);
+			return 1L;
+		}).when(itemService).exportAll(any());
+
+		var result = mockMvc.perform(get("/api/items/export"))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+
+		String body = mockMvc.perform(asyncDispatch(result))
+				.andExpect(status().isOk())
+				.andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+				.andReturn().getResponse().getContentAsString();
+		assertEquals("Test Item", objectMapper.readValue(body.trim(), Item.class).getName());
+	}
+
+	@Test
+	void getAllItems_WithFields_ReturnsOnlySelectedFields() throws Exception {
+		when(itemService.findFieldsPage(List.of("id", "status"), ItemFilter.NONE, null, null))
+				.thenReturn(new ItemPage<>(List.of(Map.of("id", 1L, "status", "NEW")), null));
+
+		mockMvc.perform(get("/api/items").param("fields", "id,status"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$[0].status").value("NEW"))
+				.andExpect(jsonPath("$[0].name").doesNotExist());
+	}
+
+	@Test
+	void getAllItems_WithStatusFilter_ReturnsFirstFilteredPage() throws Exception {
+		when(itemService.findPage(new ItemFilter("FAILED", null), null, 100))
+				.thenReturn(new ItemPage<>(List.of(testItem), null));
+
+		mockMvc.perform(get("/api/items").param("status", "FAILED"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$[0].id").value(1));
+		verify(itemService, never()).findAll();
+	}
+
+	@Test
+	void getAllItems_WithEmailFilterAndFields_FiltersProjection() throws Exception {
+		when(itemService.findFieldsPage(List.of("status"), new ItemFilter(null, "a@example.com"), null, 100))
+				.thenReturn(new ItemPage<>(List.of(Map.of("status", "NEW")), null));
+
+		mockMvc.perform(get("/api/items").param("fields", "status").param("email", "a@example.com"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$[0].status").value("NEW"));
+	}
+
+	@Test
+	void getItemById_ReturnsVersionETag() throws Exception {
+		testItem.setVersion(4L);
+		when(itemService.findById(1L)).thenReturn(Optional.of(testItem));
+
+		mockMvc.perform(get("/api/items/1"))
+				.andExpect(status().isOk())
+				.andExpect(header().string("ETag", "\"4\""));
+	}
+
+	@Test
+	void getItemById_WithMatchingIfNoneMatch_ReturnsNotModified() throws Exception {
+		testItem.setVersion(4L);
+		when(itemService.findById(1L)).thenReturn(Optional.of(testItem));
+
+		mockMvc.perform(get("/api/items/1").header("If-None-Match", "W/\"3\", \"4\""))
+				.andExpect(status().isNotModified())
+				.andExpect(header().string("ETag", "\"4\""))
+				.andExpect(content().string(""));
+	}
+
+	@Test
+	void getItemById_WithCborAccept_VariesOnAcceptAndUsesItsOwnETag() throws Exception {
+		testItem.setVersion(4L);
+		when(itemService.findById(1L)).thenReturn(Optional.of(testItem));
+
+		mockMvc.perform(get("/api/items/1").accept(MediaType.APPLICATION_CBOR))
+				.andExpect(status().isOk())
+				.andExpect(header().string("Vary", "Accept"))
+				.andExpect(header().string("ETag", "\"4-cbor\""));
+		mockMvc.perform(get("/api/items/1").accept(SMILE).header("If-None-Match", "\"4\""))
+				.andExpect(status().isOk())
+				.andExpect(header().string("ETag", "\"4-smile\""));
+		mockMvc.perform(get("/api/items/1").accept(MediaType.APPLICATION_CBOR).header("If-None-Match", "\"4-cbor\""))
+				.andExpect(status().isNotModified())
+				.andExpect(header().string("Vary", "Accept"));
+		mockMvc.perform(get("/api/items/1").header("Accept", "application/cbor;q=0.5, application/json"))
+				.andExpect(status().isOk())
+				.andExpect(header().string("ETag", "\"4\""));
+	}
+
+	@Test
+	void getAllItems_WithCborAccept_DoesNotMatchTheJsonETag() throws Exception {
+		when(itemService.currentGeneration()).thenReturn("abc-7");
+		when(itemService.findAll()).thenReturn(List.of(testItem));
+
+		mockMvc.perform(get("/api/items").accept(MediaType.APPLICATION_CBOR).header("If-None-Match", "\"abc-7\""))
+				.andExpect(status().isOk())
+				.andExpect(header().string("Vary", "Accept"))
+				.andExpect(header().string("ETag", "\"abc-7-cbor\""));
+	}
+
+	@Test
+	void getAllItems_WithCurrentGeneration_ReturnsNotModifiedWithoutReading() throws Exception {
+		when(itemService.currentGeneration()).thenReturn("abc-5");
+
+		mockMvc.perform(get("/api/items").param("status", "NEW").header("If-None-Match", "\"abc-5\""))
+				.andExpect(status().isNotModified());
+
+		verify(itemService, never()).findPage(any(ItemFilter.class), any(), anyInt());
+		verify(itemService, never()).findAll();
+	}
+
+	@Test
+	void getAllItems_WithStaleGeneration_ReturnsItemsAndNewETag() throws Exception {
+		when(itemService.currentGeneration()).thenReturn("abc-6");
+		when(itemService.findAll()).thenReturn(List.of(testItem));
+
+		mockMvc.perform(get("/api/items").header("If-None-Match", "\"abc-5\""))
+				.andExpect(status().isOk())
+				.andExpect(header().string("ETag", "\"abc-6\""));
+	}
+
+	@Test
+	void getItemsByIds_ReturnsFoundItemsAndMissingIds() throws Exception {
+		when(itemService.findAllById(List.of(1L, 99L)))
+				.thenReturn(new ItemLookup(List.of(testItem), List.of(99L)));
+
+		mockMvc.perform(get("/api/items").param("ids", "1,99"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.items[0].id").value(1))
+				.andExpect(jsonPath("$.missingIds[0]").value(99));
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = {"fields", "status", "email"})
+	void getItemsByIds_CombinedWithFieldsOrFilter_ReturnsBadRequest(String param) throws Exception {
+		mockMvc.perform(get("/api/items").param("ids", "1,2").param(param, "id"))
+				.andExpect(status().isBadRequest());
+
+		verify(itemService, never()).findAllById(any());
+		verify(itemService, never()).findFieldsPage(any(), any(ItemFilter.class), any(), any());
+		verify(itemService, never()).findPage(any(ItemFilter.class), any(), anyInt());
+	}
+
+	@Test
+	void lookupItems_WithIdsInBody_ReturnsLookup() throws Exception {
+		when(itemService.findAllById(List.of(1L, 2L)))
+				.thenReturn(new ItemLookup(List.of(testItem), List.of(2L)));
+
+		mockMvc.perform(post("/api/items/lookup")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("[1,2]"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.missingIds[0]").value(2));
+	}
+
+	@Test
+	void lookupItems_WithNoIds_ReturnsBadRequest() throws Exception {
+		mockMvc.perform(post("/api/items/lookup")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("[]"))
+				.andExpect(status().isBadRequest());
+
+		verify(itemService, never()).findAllById(any());
+	}
+
+	@Test
+	void getItemById_WithFields_ReturnsOnlySelectedFields() throws Exception {
+		when(itemService.findFieldsById(1L, List.of("status")))
+				.thenReturn(Optional.of(Map.of("status", "NEW")));
+
+		mockMvc.perform(get("/api/items/1").param("fields", "status"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.status").value("NEW"))
+				.andExpect(jsonPath("$.id").doesNotExist());
+	}
+
 	@Test
 	void createItem_WithValidData_ReturnsCreated() throws Exception {
 		when(itemService.save(any(Item.class))).thenReturn(testItem);
@@ -97,6 +316,179 @@ class InternshipApplicationTests {
 				.andExpect(status().isCreated());
 	}
 
+	@Test
+	void createItem_WithIdAndVersion_IgnoresThem() throws Exception {
+		when(itemService.save(any(Item.class))).thenReturn(testItem);
+
+		mockMvc.perform(post("/api/items")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"id\":42,\"version\":7,\"name\":\"Test Item\",\"email\":\"test@example.com\"}"))
+				.andExpect(status().isCreated());
+		verify(itemService).save(argThat(item -> item.getId() == null && item.getVersion() == null));
+	}
+
+	@Test
+	void createItem_RetriedWithIdempotencyKey_CreatesOnceAndReplays() throws Exception {
+		when(itemService.save(any(Item.class))).thenReturn(testItem);
+
+		mockMvc.perform(post("/api/items")
+				.header("Idempotency-Key", "create-once")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsString(testItem)))
+				.andExpect(status().isCreated())
+				.andExpect(header().doesNotExist("Idempotent-Replayed"));
+		mockMvc.perform(post("/api/items")
+				.header("Idempotency-Key", "create-once")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsString(testItem)))
+				.andExpect(status().isCreated())
+				.andExpect(header().string("Idempotent-Replayed", "true"))
+				.andExpect(jsonPath("$.id").value(1));
+
+		verify(itemService, times(1)).save(any(Item.class));
+	}
+
+	@Test
+	void createItem_WithIdempotencyKeyReusedForOtherPayload_ReturnsUnprocessable() throws Exception {
+		when(itemService.save(any(Item.class))).thenReturn(testItem);
+		mockMvc.perform(post("/api/items")
+				.header("Idempotency-Key", "reused")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsString(testItem)))
+				.andExpect(status().isCreated());
+		testItem.setName("Another item");
+
+		mockMvc.perform(post("/api/items")
+				.header("Idempotency-Key", "reused")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsString(testItem)))
+				.andExpect(status().isUnprocessableEntity());
+	}
+
+	@Test
+	void createItem_RetriedWhileFirstRequestIsRunning_ReturnsConflict() throws Exception {
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		when(itemService.save(any(Item.class))).thenAnswer(invocation -> {
+			started.countDown();
+			assertTrue(release.await(5, TimeUnit.SECONDS));
+			return testItem;
+		});
+		String body = objectMapper.writeValueAsString(testItem);
+		CompletableFuture<MvcResult> first = CompletableFuture.supplyAsync(() -> {
+			try {
+				return mockMvc.perform(post("/api/items")
+						.header("Idempotency-Key", "slow")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(body)).andReturn();
+			} catch (Exception e) {
+				throw new IllegalStateException(e);
+			}
+		});
+		assertTrue(started.await(5, TimeUnit.SECONDS));
+
+		mockMvc.perform(post("/api/items")
+				.header("Idempotency-Key", "slow")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(body))
+				.andExpect(status().isConflict());
+		release.countDown();
+
+		assertEquals(201, first.get(5, TimeUnit.SECONDS).getResponse().getStatus());
+		verify(itemService, times(1)).save(any(Item.class));
+	}
+
+	@Test
+	void createItem_WithBlankIdempotencyKey_ReturnsBadRequest() throws Exception {
+		mockMvc.perform(post("/api/items")
+				.header("Idempotency-Key", " ")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsString(testItem)))
+				.andExpect(status().isBadRequest());
+
+		verify(itemService, never()).save(any(Item.class));
+	}
+
+	@Test
+	void createItem_WithCborBody_ReturnsCbor() throws Exception {
+		CBORMapper cborMapper = new CBORMapper();
+		when(itemService.save(any(Item.class))).thenReturn(testItem);
+
+		byte[] body = mockMvc.perform(post("/api/items")
+				.contentType(MediaType.APPLICATION_CBOR)
+				.accept(MediaType.APPLICATION_CBOR)
+				.content(cborMapper.writeValueAsBytes(testItem)))
+				.andExpect(status().isCreated())
+				.andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+				.andReturn().getResponse().getContentAsByteArray();
+
+		assertEquals("Test Item", cborMapper.readValue(body, Item.class).getName());
+		verify(itemService).save(argThat(item -> "test@example.com".equals(item.getEmail())));
+	}
+
+	@Test
+	void getAllItems_WithSmileAccept_ReturnsSmile() throws Exception {
+		when(itemService.findAll()).thenReturn(List.of(testItem));
+
+		byte[] body = mockMvc.perform(get("/api/items").accept(SMILE))
+				.andExpect(status().isOk())
+				.andExpect(content().contentType(SMILE))
+				.andReturn().getResponse().getContentAsByteArray();
+
+		Item[] items = new SmileMapper().readValue(body, Item[].class);
+		assertEquals(1L, items[0].getId());
+	}
+
+	@Test
+	void getItemById_WithoutAccept_DefaultsToJson() throws Exception {
+		when(itemService.findById(1L)).thenReturn(Optional.of(testItem));
+
+		mockMvc.perform(get("/api/items/1"))
+				.andExpect(status().isOk())
+				.andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+	}
+
+	@Test
+	void createItems_WithValidArray_ReturnsCreatedReport() throws Exception {
+		when(itemService.createAll(anyList())).thenReturn(new BulkCreateReport(2, 5, 400.0, List.of()));
+
+		mockMvc.perform(post("/api/items/bulk")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsString(List.of(testItem, testItem))))
+				.andExpect(status().isCreated())
+				.andExpect(jsonPath("$.created").value(2));
+	}
+
+	@Test
+	void createItems_WithInvalidElements_ReportsEveryIndexAndInsertsNothing() throws Exception {
+		Item invalid = new Item();
+		invalid.setName("No email");
+
+		mockMvc.perform(post("/api/items/bulk")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("[" + objectMapper.writeValueAsString(testItem) + ","
+						+ objectMapper.writeValueAsString(invalid) + ",null]"))
+				.andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.created").value(0))
+				.andExpect(jsonPath("$.errors[0].index").value(1))
+				.andExpect(jsonPath("$.errors[0].field").value("email"))
+				.andExpect(jsonPath("$.errors[1].index").value(2));
+
+		verify(itemService, never()).createAll(anyList());
+	}
+
+	@Test
+	void createItems_WithNdjsonBody_CreatesEveryLine() throws Exception {
+		when(itemService.createAll(anyList())).thenReturn(new BulkCreateReport(2, 5, 400.0, List.of()));
+
+		mockMvc.perform(post("/api/items/bulk")
+				.contentType(MediaType.APPLICATION_NDJSON)
+				.content(objectMapper.writeValueAsString(testItem) + "\n" + objectMapper.writeValueAsString(testItem) + "\n"))
+				.andExpect(status().isCreated());
+
+		verify(itemService).createAll(argThat(items -> items.size() == 2));
+	}
+
 	@Test
 	void getItemById_WhenExists_ReturnsItem() throws Exception {
 		when(itemService.findById(1L)).thenReturn(Optional.of(testItem));
@@ -109,22 +501,217 @@ class InternshipApplicationTests {
 
 	@Test
 	void updateItem_WhenExists_ReturnsOk() throws Exception {
-		when(itemService.findById(1L)).thenReturn(Optional.of(testItem));
-		when(itemService.save(any(Item.class))).thenReturn(testItem);
+		when(itemService.update(eq(1L), any(Item.class), isNull())).thenReturn(ItemUpdate.updated(testItem));
 
 		mockMvc.perform(put("/api/items/1")
 				.contentType(MediaType.APPLICATION_JSON)
 				.content(objectMapper.writeValueAsString(testItem)))
 				.andExpect(status().isOk());
+		verify(itemService, never()).findById(any());
+	}
+
+	@Test
+	void updateItem_WhenMissing_ReturnsNotFound() throws Exception {
+		when(itemService.update(eq(1L), any(Item.class), isNull())).thenReturn(ItemUpdate.notFound());
+
+		mockMvc.perform(put("/api/items/1")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsString(testItem)))
+				.andExpect(status().isNotFound());
+	}
+
+	@Test
+	void updateItem_WithIfMatch_UpdatesConditionallyAndReturnsNewETag() throws Exception {
+		Item updated = new Item(1L, "Test Item", null, "NEW", "test@example.com", 4L, null, true);
+		when(itemService.update(eq(1L), any(Item.class), eq(3L))).thenReturn(ItemUpdate.updated(updated));
+
+		mockMvc.perform(put("/api/items/1")
+				.header("If-Match", "\"3\"")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsString(testItem)))
+				.andExpect(status().isOk())
+				.andExpect(header().string("ETag", "\"4\""))
+				.andExpect(jsonPath("$.version").value(4));
 	}
 
 	@Test
 	void deleteItem_WhenExists_ReturnsNoContent() throws Exception {
-		when(itemService.findById(1L)).thenReturn(Optional.of(testItem));
-		doNothing().when(itemService).deleteById(1L);
+		when(itemService.deleteById(1L)).thenReturn(true);
 
 		mockMvc.perform(delete("/api/items/1"))
 				.andExpect(status().isNoContent());
+		verify(itemService, never()).findById(any());
+	}
+
+	@Test
+	void deleteItem_WhenMissing_ReturnsNotFound() throws Exception {
+		when(itemService.deleteById(1L)).thenReturn(false);
+
+		mockMvc.perform(delete("/api/items/1"))
+				.andExpect(status().isNotFound());
+	}
+
+	@Test
+	void deleteItems_ByStatus_DeletesMatchingItems() throws Exception {
+		when(itemService.deleteAllMatching(new ItemFilter("FAILED", null))).thenReturn(new BulkDeleteReport(7, 2, 3));
+
+		mockMvc.perform(delete("/api/items").param("status", "FAILED"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.deleted").value(7))
+				.andExpect(jsonPath("$.chunks").value(2));
+	}
+
+	@Test
+	void deleteItems_ByIds_DeletesListedItems() throws Exception {
+		when(itemService.deleteAllById(List.of(1L, 2L))).thenReturn(new BulkDeleteReport(2, 1, 1));
+
+		mockMvc.perform(delete("/api/items").param("ids", "1,2"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.deleted").value(2));
+		mockMvc.perform(post("/api/items/delete")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("[1,2]"))
+				.andExpect(status().isOk());
+	}
+
+	@Test
+	void deleteItems_WithoutIdsOrFilter_ReturnsBadRequest() throws Exception {
+		mockMvc.perform(delete("/api/items"))
+				.andExpect(status().isBadRequest());
+
+		verify(itemService, never()).deleteAllMatching(any());
+		verify(itemService, never()).deleteAllById(any());
+	}
+
+	@Test
+	void processItemsChunked_ReturnsReport() throws Exception {
+		when(itemService.processItemsChunked(100)).thenReturn(new BatchReport(3, 0, 10, 300.0));
+
+		mockMvc.perform(post("/api/items/batch-process/chunked").param("chunkSize", "100"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.processed").value(3))
+				.andExpect(jsonPath("$.rowsPerSecond").value(300.0));
+	}
+
+	@Test
+	void processItemsStreaming_WritesOneLinePerItem() throws Exception {
+		doAnswer(invocation -> {
+			BatchListener listener = invocation.getArgument(0);
+			listener.onProcessed(testItem);
+			listener.onProcessed(testItem);
+			return 2L;
+		}).when(itemService).processItemsStreaming(any());
+
+		var result = mockMvc.perform(post("/api/items/batch-process/stream"))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+
+		String body = mockMvc.perform(asyncDispatch(result))
+				.andExpect(status().isOk())
+				.andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+				.andReturn().getResponse().getContentAsString();
+		String[] lines = body.split("\n");
+		assertEquals(2, lines.length);
+		assertEquals(1L, objectMapper.readValue(lines[0], Item.class).getId());
+	}
+
+	// The real-time check against a running server is StreamingTimeoutTests, run with -Pslow
+	@Test
+	void streamingEndpoints_UseTheConfiguredAsyncTimeout() throws Exception {
+		long configured = Duration.ofHours(2).toMillis();
+
+		var stream = mockMvc.perform(post("/api/items/batch-process/stream"))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		var export = mockMvc.perform(get("/api/items/export"))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+
+		assertEquals(configured, stream.getRequest().getAsyncContext().getTimeout());
+		assertEquals(configured, export.getRequest().getAsyncContext().getTimeout());
+	}
+
+	@Test
+	void processItems_StartsJobAndReturnsAccepted() throws Exception {
+		BatchJob job = new BatchJob(5);
+		when(itemService.startBatchJob()).thenReturn(job);
+
+		mockMvc.perform(post("/api/items/batch-process"))
+				.andExpect(status().isAccepted())
+				.andExpect(header().string("Location", "/api/items/batch-process/" + job.getId()))
+				.andExpect(jsonPath("$.jobId").value(job.getId()))
+				.andExpect(jsonPath("$.state").value("RUNNING"))
+				.andExpect(jsonPath("$.total").value(5));
+	}
+
+	@Test
+	void processItems_Incremental_StartsIncrementalJob() throws Exception {
+		when(itemService.startIncrementalBatchJob()).thenReturn(new BatchJob(0));
+
+		mockMvc.perform(post("/api/items/batch-process").param("incremental", "true"))
+				.andExpect(status().isAccepted());
+		verify(itemService).startIncrementalBatchJob();
+		verify(itemService, never()).startBatchJob();
+	}
+
+	@Test
+	void getBatchJob_ReturnsProgress() throws Exception {
+		BatchJob job = new BatchJob(2);
+		job.onProcessed(testItem);
+		when(itemService.findBatchJob(job.getId())).thenReturn(Optional.of(job));
+
+		mockMvc.perform(get("/api/items/batch-process/" + job.getId()))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.processed").value(1))
+				.andExpect(jsonPath("$.failed").value(0))
+				.andExpect(jsonPath("$.etaSeconds").isNumber());
+	}
+
+	@Test
+	void getBatchJobResults_ReturnsPage() throws Exception {
+		BatchJob job = new BatchJob(1);
+		job.onProcessed(testItem);
+		when(itemService.findBatchJob(job.getId())).thenReturn(Optional.of(job));
+		when(itemService.findBatchJobResults(job, 0, 10)).thenReturn(List.of(testItem));
+
+		mockMvc.perform(get("/api/items/batch-process/" + job.getId() + "/results").param("size", "10"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$[0].id").value(1));
+	}
+
+	@Test
+	void bulkUpdateStatus_ReturnsChunkCounts() throws Exception {
+		BulkUpdateReport report = new BulkUpdateReport("PROCESSED", 3,
+				List.of(new BulkUpdateReport.ChunkUpdate(1, 500, 3)), 5);
+		when(itemService.bulkUpdateStatus("PROCESSED", "NEW")).thenReturn(report);
+
+		mockMvc.perform(post("/api/items/batch-process/bulk-status")
+				.param("status", "PROCESSED")
+				.param("currentStatus", "NEW"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.updated").value(3))
+				.andExpect(jsonPath("$.chunks[0].updated").value(3));
+	}
+
+	@Test
+	void redriveDeadLetters_StartsRedriveJob() throws Exception {
+		BatchJob job = new BatchJob(2);
+		when(itemService.startRedriveJob()).thenReturn(job);
+
+		mockMvc.perform(post("/api/items/dead-letters/redrive"))
+				.andExpect(status().isAccepted())
+				.andExpect(jsonPath("$.jobId").value(job.getId()));
+	}
+
+	@Test
+	void getDeadLetters_ReturnsEntries() throws Exception {
+		when(itemService.findDeadLetters(null, 100))
+				.thenReturn(List.of(new DeadLetter(1L, "boom", 3, null)));
+
+		mockMvc.perform(get("/api/items/dead-letters"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$[0].itemId").value(1))
+				.andExpect(jsonPath("$[0].attempts").value(3));
 	}
 
 	// Error Cases
@@ -145,4 +732,131 @@ class InternshipApplicationTests {
 				.content(objectMapper.writeValueAsString(testItem)))
 				.andExpect(status().isBadRequest());
 	}
+
+	@Test
+	void processItemsChunked_WithInvalidChunkSize_ReturnsBadRequest() throws Exception {
+		mockMvc.perform(post("/api/items/batch-process/chunked").param("chunkSize", "0"))
+				.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	void processItems_WhenRegistryFull_ReturnsTooManyRequests() throws Exception {
+		when(itemService.startBatchJob()).thenThrow(new RejectedExecutionException("full"));
+
+		mockMvc.perform(post("/api/items/batch-process"))
+				.andExpect(status().isTooManyRequests());
+	}
+
+	@Test
+	void getBatchJob_WhenUnknown_ReturnsNotFound() throws Exception {
+		when(itemService.findBatchJob("missing")).thenReturn(Optional.empty());
+
+		mockMvc.perform(get("/api/items/batch-process/missing"))
+				.andExpect(status().isNotFound());
+	}
+
+	@Test
+	void updateItem_WithStaleVersion_ReturnsConflict() throws Exception {
+		when(itemService.update(eq(1L), any(Item.class), eq(2L))).thenReturn(ItemUpdate.versionMismatch());
+		testItem.setVersion(2L);
+
+		mockMvc.perform(put("/api/items/1")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsString(testItem)))
+				.andExpect(status().isConflict());
+		verify(itemService, never()).save(any(Item.class));
+	}
+
+	@Test
+	void updateItem_WithStaleIfMatch_ReturnsPreconditionFailed() throws Exception {
+		testItem.setVersion(3L);
+		when(itemService.findById(1L)).thenReturn(Optional.of(testItem));
+
+		mockMvc.perform(put("/api/items/1")
+				.header("If-Match", "\"2\"")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsString(testItem)))
+				.andExpect(status().isPreconditionFailed());
+	}
+
+	@Test
+	void updateItem_WhenConcurrentWriteWinsAgainstIfMatch_ReturnsPreconditionFailed() throws Exception {
+		testItem.setVersion(3L);
+		when(itemService.update(eq(1L), any(Item.class), eq(3L))).thenReturn(ItemUpdate.versionMismatch());
+
+		mockMvc.perform(put("/api/items/1")
+				.header("If-Match", "\"3\"")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsString(testItem)))
+				.andExpect(status().isPreconditionFailed());
+	}
+
+	@Test
+	void patchItem_WithStatusOnly_PatchesThatField() throws Exception {
+		when(itemService.patch(1L, Map.of("status", "DONE"), null)).thenReturn(ItemUpdate.updated(null));
+
+		mockMvc.perform(patch("/api/items/1")
+				.contentType("application/merge-patch+json")
+				.content("{\"status\":\"DONE\"}"))
+				.andExpect(status().isNoContent());
+	}
+
+	@Test
+	void patchItem_WithIfMatch_ReturnsNewETag() throws Exception {
+		when(itemService.patch(1L, Map.of("name", "Renamed"), 3L)).thenReturn(ItemUpdate.updated(null));
+
+		mockMvc.perform(patch("/api/items/1")
+				.header("If-Match", "\"3\"")
+				.contentType("application/merge-patch+json")
+				.content("{\"name\":\"Renamed\"}"))
+				.andExpect(status().isNoContent())
+				.andExpect(header().string("ETag", "\"4\""));
+	}
+
+	@Test
+	void patchItem_WithCborETagInIfMatch_ChecksTheSameVersion() throws Exception {
+		when(itemService.patch(1L, Map.of("name", "Renamed"), 3L)).thenReturn(ItemUpdate.updated(null));
+
+		mockMvc.perform(patch("/api/items/1")
+				.header("If-Match", "\"3-cbor\"")
+				.accept(MediaType.APPLICATION_CBOR)
+				.contentType("application/merge-patch+json")
+				.content("{\"name\":\"Renamed\"}"))
+				.andExpect(status().isNoContent())
+				.andExpect(header().string("ETag", "\"4-cbor\""));
+	}
+
+	@Test
+	void patchItem_WithStaleIfMatch_ReturnsPreconditionFailed() throws Exception {
+		when(itemService.patch(1L, Map.of("name", "Renamed"), 2L)).thenReturn(ItemUpdate.versionMismatch());
+
+		mockMvc.perform(patch("/api/items/1")
+				.header("If-Match", "\"2\"")
+				.contentType("application/merge-patch+json")
+				.content("{\"name\":\"Renamed\"}"))
+				.andExpect(status().isPreconditionFailed());
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = {"{\"id\":5}", "{\"version\":1}", "{\"email\":null}", "{\"email\":\"not-an-email\"}", "{\"status\":7}"})
+	void patchItem_WithForbiddenOrInvalidChange_ReturnsBadRequest(String body) throws Exception {
+		mockMvc.perform(patch("/api/items/1")
+				.contentType("application/merge-patch+json")
+				.content(body))
+				.andExpect(status().isBadRequest());
+
+		verify(itemService, never()).patch(any(), any(), any());
+	}
+
+	@Test
+	void getAllItems_WithMalformedCursor_ReturnsBadRequest() throws Exception {
+		mockMvc.perform(get("/api/items").param("cursor", "not-a-cursor"))
+				.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	void getAllItems_WithUnknownField_ReturnsBadRequest() throws Exception {
+		mockMvc.perform(get("/api/items").param("fields", "id,password"))
+				.andExpect(status().isBadRequest());
+	}
 }
@@ -0,0 +1,90 @@
+package com.siemens.internship;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Throughput comparisons between processing modes. Excluded from the default build,
+ * run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class ItemBenchmarkTests {
+
+	private static final int ITEM_COUNT = 200;
+	private static final int INSERT_ONE_BY_ONE_COUNT = 2_000;
+	private static final int BULK_INSERT_COUNT = 50_000;
+
+	@Test
+	void compareExecutorModes() throws Exception {
+		BatchReport fixed = runPerItemBatch("fixed");
+		BatchReport virtual = runPerItemBatch("virtual");
+		// Before Java 21 the virtual mode falls back to a pool of max-in-flight platform threads
+		String virtualLabel = Runtime.version().feature() >= 21 ? "virtual" : "pooled";
+
+		System.out.printf("%-8s %8s %10s %12s%n", "mode", "items", "millis", "items/s");
+		System.out.printf("%-8s %8d %10d %12.1f%n", "fixed", fixed.processed(), fixed.elapsedMillis(), fixed.rowsPerSecond());
+		System.out.printf("%-8s %8d %10d %12.1f%n", virtualLabel, virtual.processed(), virtual.elapsedMillis(), virtual.rowsPerSecond());
+		if (!virtualLabel.equals("virtual")) {
+			System.out.printf("(pooled: Java %d has no virtual threads, items.batch.executor=virtual used platform threads)%n",
+					Runtime.version().feature());
+		}
+
+		assertEquals(ITEM_COUNT, fixed.processed());
+		assertEquals(ITEM_COUNT, virtual.processed());
+	}
+
+	@Test
+	void compareInsertModes() {
+		try (ConfigurableApplicationContext context = new SpringApplicationBuilder(InternshipApplication.class)
+				.web(WebApplicationType.NONE)
+				.run()) {
+			ItemRepository itemRepository = context.getBean(ItemRepository.class);
+			ItemService itemService = context.getBean(ItemService.class);
+			itemRepository.deleteAll();
+
+			long start = System.nanoTime();
+			newItems(INSERT_ONE_BY_ONE_COUNT).forEach(itemService::save);
+			BatchReport oneByOne = BatchReport.of(INSERT_ONE_BY_ONE_COUNT, start);
+			BulkCreateReport bulk = itemService.createAll(newItems(BULK_INSERT_COUNT));
+
+			System.out.printf("%-10s %8s %10s %12s%n", "mode", "items", "millis", "rows/s");
+			System.out.printf("%-10s %8d %10d %12.1f%n", "save", oneByOne.processed(), oneByOne.elapsedMillis(), oneByOne.rowsPerSecond());
+			System.out.printf("%-10s %8d %10d %12.1f%n", "bulk", bulk.created(), bulk.elapsedMillis(), bulk.rowsPerSecond());
+
+			assertEquals(INSERT_ONE_BY_ONE_COUNT + BULK_INSERT_COUNT, itemRepository.count());
+		}
+	}
+
+	private static List<Item> newItems(int count) {
+		return IntStream.range(0, count).mapToObj(i -> {
+			Item item = new Item();
+			item.setName("Item " + i);
+			item.setEmail("item" + i + "@example.com");
+			item.setStatus("NEW");
+			return item;
+		}).toList();
+	}
+
+	private BatchReport runPerItemBatch(String executorMode) throws Exception {
+		try (ConfigurableApplicationContext context = new SpringApplicationBuilder(InternshipApplication.class)
+				.web(WebApplicationType.NONE)
+				.run("--items.batch.executor=" + executorMode)) {
+			ItemRepository itemRepository = context.getBean(ItemRepository.class);
+			ItemService itemService = context.getBean(ItemService.class);
+			itemRepository.deleteAll();
+			itemRepository.saveAll(newItems(ITEM_COUNT));
+
+			long start = System.nanoTime();
+			List<Item> processed = itemService.processItemsAsync().get();
+			return BatchReport.of(processed.size(), start);
+		}
+	}
+}
@@ -0,0 +1,77 @@
+package com.siemens.internship;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ItemCacheTests {
+
+	private ItemCache cache;
+	private final AtomicInteger loads = new AtomicInteger();
+
+	@BeforeEach
+	void setUp() {
+		cache = new ItemCache(new ItemCacheProperties(), new SimpleMeterRegistry());
+	}
+
+	@Test
+	void evictAllIds_RemovesOnlyThoseIds() {
+		cache.get(1L, this::load);
+		cache.get(2L, this::load);
+		cache.get(3L, this::load);
+
+		cache.evictAll(List.of(1L, 3L));
+		cache.get(1L, this::load);
+		cache.get(2L, this::load);
+		cache.get(3L, this::load);
+
+		assertEquals(5, loads.get());
+	}
+
+	@Test
+	void loadOverlappingARangeEviction_IsNotKept() {
+		// The range eviction runs while the load is still in flight, so it cannot see the entry
+		cache.get(5L, id -> {
+			cache.evictRange(1L, 10L);
+			return load(id);
+		});
+
+		cache.get(5L, this::load);
+
+		assertEquals(2, loads.get());
+	}
+
+	@Test
+	void loadOverlappingAnUnrelatedIdEviction_IsKept() {
+		cache.get(5L, id -> {
+			cache.evict(6L);
+			cache.evictAll(List.of(7L, 8L));
+			return load(id);
+		});
+
+		cache.get(5L, this::load);
+
+		assertEquals(1, loads.get());
+	}
+
+	@Test
+	void loadWithoutEviction_IsKept() {
+		cache.get(5L, this::load);
+		cache.get(5L, this::load);
+
+		assertEquals(1, loads.get());
+	}
+
+	private Optional<Item> load(Long id) {
+		loads.incrementAndGet();
+		Item item = new Item();
+		item.setId(id);
+		return Optional.of(item);
+	}
+}
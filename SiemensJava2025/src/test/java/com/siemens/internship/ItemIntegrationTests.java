@@ -0,0 +1,886 @@
+package com.siemens.internship;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.mockito.stubbing.Answer;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs the service against the real repository and the in-memory H2 database.
+ */
+@SpringBootTest(properties = {
+		"items.batch.simulated-work-millis=5",
+		"items.batch.page-size=3",
+		"items.batch.chunk-size=4",
+		"items.batch.retry-initial-backoff=1ms",
+		"spring.jpa.properties.hibernate.generate_statistics=true",
+		"logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN"
+})
+@AutoConfigureMockMvc
+class ItemIntegrationTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private ItemService itemService;
+
+	@SpyBean
+	private ItemRepository itemRepository;
+
+	@Autowired
+	private BatchJobRegistry batchJobRegistry;
+
+	@Autowired
+	private DeadLetterRepository deadLetterRepository;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Autowired
+	private BatchProperties batchProperties;
+
+	@Autowired
+	private ItemCache itemCache;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@BeforeEach
+	void setUp() {
+		itemCache.evictAll();
+		itemRepository.deleteAll();
+		deadLetterRepository.deleteAll();
+	}
+
+	private void createItems(int count) {
+		IntStream.range(0, count).forEach(i -> {
+			Item item = new Item();
+			item.setName("Item " + i);
+			item.setEmail("item" + i + "@example.com");
+			item.setStatus("NEW");
+			itemRepository.save(item);
+		});
+	}
+
+	// Chunked processing
+	@Test
+	void processItemsChunked_ProcessesEveryItemAcrossChunks() {
+		createItems(10);
+
+		BatchReport report = itemService.processItemsChunked(3);
+
+		assertEquals(10, report.processed());
+		assertTrue(report.rowsPerSecond() > 0);
+		assertTrue(itemRepository.findAll().stream()
+				.allMatch(item -> "PROCESSED".equals(item.getStatus())));
+	}
+
+	@Test
+	void processItemsChunked_WithEmptyTable_ReportsZero() {
+		BatchReport report = itemService.processItemsChunked(3);
+
+		assertEquals(0, report.processed());
+	}
+
+	@Test
+	void processItemsChunked_WithInvalidChunkSize_Throws() {
+		assertThrows(IllegalArgumentException.class, () -> itemService.processItemsChunked(0));
+	}
+
+	// Keyset id scanning
+	@Test
+	void findIdsAfter_ReturnsAscendingPagesWithoutGapsOrOverlap() {
+		createItems(7);
+		List<Long> allIds = itemRepository.findAll().stream().map(Item::getId).sorted().toList();
+
+		List<Long> scanned = new ArrayList<>();
+		List<Long> page = itemRepository.findIdsAfter(Long.MIN_VALUE, Limit.of(3));
+		while (!page.isEmpty()) {
+			assertTrue(page.size() <= 3);
+			scanned.addAll(page);
+			page = itemRepository.findIdsAfter(page.get(page.size() - 1), Limit.of(3));
+		}
+
+		assertEquals(allIds, scanned);
+	}
+
+	// Keyset pages for the REST API
+	@Test
+	void findPage_WalksEveryItemOnceFollowingCursors() {
+		createItems(5);
+
+		List<Long> seen = new ArrayList<>();
+		ItemPage<Item> page = itemService.findPage(null, 2);
+		seen.addAll(page.items().stream().map(Item::getId).toList());
+		while (page.nextCursor() != null) {
+			page = itemService.findPage(ItemPage.decodeCursor(page.nextCursor()), 2);
+			seen.addAll(page.items().stream().map(Item::getId).toList());
+		}
+
+		assertEquals(itemRepository.findAll().stream().map(Item::getId).sorted().toList(), seen);
+	}
+
+	// Sparse fieldsets
+	@Test
+	void findFieldsPage_SelectsOnlyRequestedColumns() {
+		createItems(3);
+
+		ItemPage<Map<String, Object>> page = itemService.findFieldsPage(List.of("status"), null, 2);
+
+		assertEquals(2, page.items().size());
+		assertEquals(Set.of("status"), page.items().get(0).keySet());
+		assertNotNull(page.nextCursor());
+		ItemPage<Map<String, Object>> last = itemService.findFieldsPage(
+				List.of("status"), ItemPage.decodeCursor(page.nextCursor()), 2);
+		assertEquals(1, last.items().size());
+		assertNull(last.nextCursor());
+	}
+
+	@Test
+	void findFieldsById_ReturnsSelectedColumns() {
+		createItems(1);
+		Item item = itemRepository.findAll().get(0);
+
+		Map<String, Object> fields = itemService.findFieldsById(item.getId(), List.of("id", "email")).orElseThrow();
+
+		assertEquals(List.of("id", "email"), List.copyOf(fields.keySet()));
+		assertEquals(item.getEmail(), fields.get("email"));
+	}
+
+	// Filtering
+	@Test
+	void findPage_WithFilter_WalksOnlyMatchingItems() {
+		createItems(5);
+		List<Item> all = itemRepository.findAll();
+		all.get(1).setStatus("FAILED");
+		all.get(3).setStatus("FAILED");
+		all.get(4).setStatus("FAILED");
+		all.get(4).setEmail("other@example.com");
+		itemRepository.saveAll(all);
+
+		ItemPage<Item> first = itemService.findPage(new ItemFilter("FAILED", null), null, 2);
+		ItemPage<Item> second = itemService.findPage(new ItemFilter("FAILED", null), ItemPage.decodeCursor(first.nextCursor()), 2);
+		ItemPage<Item> both = itemService.findPage(new ItemFilter("FAILED", "other@example.com"), null, 10);
+		ItemPage<Map<String, Object>> byEmail = itemService.findFieldsPage(
+				List.of("id"), new ItemFilter(null, all.get(1).getEmail()), null, 10);
+
+		assertEquals(List.of(all.get(1).getId(), all.get(3).getId()), first.items().stream().map(Item::getId).toList());
+		assertEquals(List.of(all.get(4).getId()), second.items().stream().map(Item::getId).toList());
+		assertNull(second.nextCursor());
+		assertEquals(List.of(all.get(4).getId()), both.items().stream().map(Item::getId).toList());
+		assertEquals(List.of(Map.of("id", all.get(1).getId())), byEmail.items());
+	}
+
+	@Test
+	void filteredQueries_UseTheFilterIndexes() {
+		String byStatus = jdbcTemplate.queryForObject(
+				"EXPLAIN SELECT * FROM item WHERE status = 'FAILED' AND id > 0 ORDER BY id", String.class);
+		String byEmail = jdbcTemplate.queryForObject(
+				"EXPLAIN SELECT * FROM item WHERE email = 'a@example.com' AND id > 0 ORDER BY id", String.class);
+
+		assertTrue(byStatus.toUpperCase().contains("IDX_ITEM_STATUS_ID"), byStatus);
+		assertTrue(byEmail.toUpperCase().contains("IDX_ITEM_EMAIL_ID"), byEmail);
+	}
+
+	// Generation
+	@Test
+	void currentGeneration_ChangesWithEveryWritePath() {
+		createItems(2);
+		Item item = itemRepository.findAll().get(0);
+		List<String> generations = new ArrayList<>();
+		generations.add(itemService.currentGeneration());
+
+		itemService.save(item);
+		generations.add(itemService.currentGeneration());
+		itemService.processItemsChunked(1);
+		generations.add(itemService.currentGeneration());
+		itemService.bulkUpdateStatus("ARCHIVED", null);
+		generations.add(itemService.currentGeneration());
+		itemService.deleteById(item.getId());
+		generations.add(itemService.currentGeneration());
+
+		assertEquals(generations.size(), Set.copyOf(generations).size());
+		assertEquals(generations.get(4), itemService.currentGeneration());
+	}
+
+	// Bulk create
+	@Test
+	void createAll_InsertsEveryItemAcrossChunks() {
+		List<Item> items = IntStream.range(0, 10).mapToObj(i -> {
+			Item item = new Item();
+			item.setName("Bulk " + i);
+			item.setEmail("bulk" + i + "@example.com");
+			item.setId(999L);
+			return item;
+		}).toList();
+
+		BulkCreateReport report = itemService.createAll(items);
+
+		assertEquals(10, report.created());
+		List<Item> stored = itemRepository.findAll();
+		assertEquals(10, stored.size());
+		assertEquals(10, stored.stream().map(Item::getId).distinct().count());
+		assertTrue(stored.stream().allMatch(item -> item.getVersion() == 0L && item.getLastModified() != null));
+	}
+
+	@Test
+	void createItem_OverHttpWithClientIdAndVersion_InsertsNewItem() throws Exception {
+		mockMvc.perform(post("/api/items")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"id\":123456,\"version\":7,\"name\":\"New\",\"email\":\"new@example.com\"}"))
+				.andExpect(status().isCreated())
+				.andExpect(jsonPath("$.version").value(0));
+
+		Item stored = itemRepository.findAll().get(0);
+		assertNotEquals(123456L, stored.getId());
+		assertEquals(0L, stored.getVersion());
+	}
+
+	// Single-statement PUT
+	@Test
+	void updateItem_OverHttp_IssuesOneStatementPerRequest() throws Exception {
+		createItems(1);
+		Item item = itemRepository.findAll().get(0);
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		String body = "{\"name\":\"Renamed\",\"status\":\"NEW\",\"email\":\"renamed@example.com\"}";
+
+		statistics.clear();
+		mockMvc.perform(put("/api/items/" + item.getId())
+				.header("If-Match", "\"" + item.getVersion() + "\"")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(body))
+				.andExpect(status().isOk())
+				.andExpect(header().string("ETag", "\"" + (item.getVersion() + 1) + "\""));
+		long conditional = statistics.getPrepareStatementCount();
+
+		statistics.clear();
+		mockMvc.perform(put("/api/items/" + item.getId())
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(body))
+				.andExpect(status().isOk());
+		long unconditional = statistics.getPrepareStatementCount();
+
+		statistics.clear();
+		mockMvc.perform(put("/api/items/" + item.getId())
+				.header("If-Match", "\"" + item.getVersion() + "\"")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(body))
+				.andExpect(status().isPreconditionFailed());
+		long stale = statistics.getPrepareStatementCount();
+
+		assertEquals(1, conditional);
+		assertEquals(1, unconditional);
+		assertEquals(2, stale);
+		Item stored = itemRepository.findById(item.getId()).orElseThrow();
+		assertEquals("Renamed", stored.getName());
+		assertEquals(item.getVersion() + 2, stored.getVersion());
+	}
+
+	@Test
+	void patchItem_OverHttp_WritesOnlyPresentFieldsInOneStatement() throws Exception {
+		createItems(1);
+		Item item = itemRepository.findAll().get(0);
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+		statistics.clear();
+		mockMvc.perform(patch("/api/items/" + item.getId())
+				.header("If-Match", "\"" + item.getVersion() + "\"")
+				.contentType("application/merge-patch+json")
+				.content("{\"status\":\"DONE\",\"description\":null}"))
+				.andExpect(status().isNoContent())
+				.andExpect(header().string("ETag", "\"" + (item.getVersion() + 1) + "\""));
+		long statements = statistics.getPrepareStatementCount();
+		mockMvc.perform(patch("/api/items/" + item.getId())
+				.contentType("application/merge-patch+json")
+				.content("{\"name\":\"Patched\"}"))
+				.andExpect(status().isNoContent());
+
+		assertEquals(1, statements);
+		Item stored = itemRepository.findById(item.getId()).orElseThrow();
+		assertEquals("DONE", stored.getStatus());
+		assertEquals("Patched", stored.getName());
+		assertEquals(item.getEmail(), stored.getEmail());
+		assertEquals(item.getVersion() + 2, stored.getVersion());
+	}
+
+	@Test
+	void patch_WithStaleVersion_ReportsMismatchAndChangesNothing() {
+		createItems(1);
+		Item item = itemRepository.findAll().get(0);
+
+		ItemUpdate update = itemService.patch(item.getId(), Map.of("status", "DONE"), item.getVersion() + 1);
+
+		assertEquals(ItemUpdate.Outcome.VERSION_MISMATCH, update.outcome());
+		assertEquals("NEW", itemRepository.findById(item.getId()).orElseThrow().getStatus());
+		assertThrows(InvalidDataAccessApiUsageException.class,
+				() -> itemService.patch(item.getId(), Map.of("version", 7L), null));
+	}
+
+	@Test
+	void update_WhenItemMissing_ReturnsNotFound() {
+		Item changes = new Item();
+		changes.setEmail("missing@example.com");
+
+		assertEquals(ItemUpdate.Outcome.NOT_FOUND, itemService.update(-1L, changes, null).outcome());
+		assertEquals(ItemUpdate.Outcome.NOT_FOUND, itemService.update(-1L, changes, 0L).outcome());
+	}
+
+	// Deletes
+	@Test
+	void deleteItem_OverHttp_IssuesOneStatement() throws Exception {
+		createItems(1);
+		Long id = itemRepository.findAll().get(0).getId();
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+		statistics.clear();
+		mockMvc.perform(delete("/api/items/" + id)).andExpect(status().isNoContent());
+		long statements = statistics.getPrepareStatementCount();
+		mockMvc.perform(delete("/api/items/" + id)).andExpect(status().isNotFound());
+
+		assertEquals(1, statements);
+		assertFalse(itemRepository.existsById(id));
+	}
+
+	@Test
+	void deleteAllById_DeletesInChunksAndSkipsMissingIds() {
+		createItems(10);
+		List<Long> ids = new ArrayList<>(itemRepository.findAll().stream().map(Item::getId).toList());
+		Long kept = ids.remove(0);
+		ids.add(-1L);
+
+		BulkDeleteReport report = itemService.deleteAllById(ids);
+
+		assertEquals(9, report.deleted());
+		assertEquals(3, report.chunks());
+		assertEquals(List.of(kept), itemRepository.findAll().stream().map(Item::getId).toList());
+	}
+
+	@Test
+	void deleteAllMatching_DeletesOnlyMatchingItemsInChunks() {
+		createItems(10);
+		List<Item> all = itemRepository.findAll();
+		all.subList(0, 6).forEach(item -> item.setStatus("FAILED"));
+		itemRepository.saveAll(all);
+		Long failedId = all.get(0).getId();
+		itemService.findById(failedId);
+
+		BulkDeleteReport report = itemService.deleteAllMatching(new ItemFilter("FAILED", null));
+
+		assertEquals(6, report.deleted());
+		assertEquals(2, report.chunks());
+		assertEquals(4, itemRepository.count());
+		assertTrue(itemService.findById(failedId).isEmpty());
+		assertThrows(IllegalArgumentException.class, () -> itemService.deleteAllMatching(ItemFilter.NONE));
+	}
+
+	@Test
+	void deleteAllMatching_KeepsRowsChangedAfterTheyWereSelected() {
+		createItems(3);
+		List<Item> all = itemRepository.findAll();
+		all.forEach(item -> item.setStatus("FAILED"));
+		itemRepository.saveAll(all);
+		Item rescued = all.get(1);
+		doAnswer(invocation -> {
+			Object rows = realRepository().answer(invocation);
+			// A concurrent PUT lands between the scan and the DELETE
+			rescued.setStatus("NEW");
+			itemService.update(rescued.getId(), rescued, null);
+			return rows;
+		}).when(itemRepository).findProjections(any(), any(), any(), any());
+
+		BulkDeleteReport report = itemService.deleteAllMatching(new ItemFilter("FAILED", null));
+
+		assertEquals(2, report.deleted());
+		assertEquals("NEW", itemRepository.findById(rescued.getId()).orElseThrow().getStatus());
+	}
+
+	// Multi-get
+	@Test
+	void findAllById_ReturnsFoundAndMissingInRequestOrder() {
+		createItems(3);
+		List<Long> ids = itemRepository.findAll().stream().map(Item::getId).sorted().toList();
+		long missing = ids.get(2) + 1000;
+
+		ItemLookup lookup = itemService.findAllById(List.of(ids.get(2), missing, ids.get(0), ids.get(2)));
+
+		assertEquals(List.of(ids.get(2), ids.get(0)), lookup.items().stream().map(Item::getId).toList());
+		assertEquals(List.of(missing), lookup.missingIds());
+	}
+
+	@Test
+	void findAllById_SplitsLongListsIntoChunkedInQueries() {
+		createItems(2);
+		List<Long> ids = LongStream.rangeClosed(1, ItemRepository.MAX_IN_LIST_SIZE + 500).boxed().toList();
+		clearInvocations(itemRepository);
+
+		ItemLookup lookup = itemService.findAllById(ids);
+
+		verify(itemRepository, times(2)).findByIdIn(any());
+		assertEquals(ids.size(), lookup.items().size() + lookup.missingIds().size());
+	}
+
+	// Read cache
+	@Test
+	void findById_ServesRepeatedReadsFromCache() {
+		createItems(1);
+		Long id = itemRepository.findAll().get(0).getId();
+		clearInvocations(itemRepository);
+		long hits = itemCache.stats().hitCount();
+
+		itemService.findById(id).orElseThrow().setStatus("CHANGED_BY_CALLER");
+		Item second = itemService.findById(id).orElseThrow();
+
+		verify(itemRepository, times(1)).findById(id);
+		assertEquals(hits + 1, itemCache.stats().hitCount());
+		assertEquals("NEW", second.getStatus());
+	}
+
+	@Test
+	void findById_AfterSave_ReturnsNewState() {
+		createItems(1);
+		Item item = itemService.findById(itemRepository.findAll().get(0).getId()).orElseThrow();
+
+		item.setName("Renamed");
+		itemService.save(item);
+
+		assertEquals("Renamed", itemService.findById(item.getId()).orElseThrow().getName());
+	}
+
+	@Test
+	void findById_AfterDelete_ReturnsEmpty() {
+		createItems(1);
+		Long id = itemRepository.findAll().get(0).getId();
+		itemService.findById(id);
+
+		itemService.deleteById(id);
+
+		assertTrue(itemService.findById(id).isEmpty());
+	}
+
+	@Test
+	void findById_AfterBatchPaths_ReturnsProcessedStatus() {
+		createItems(3);
+		List<Long> ids = itemRepository.findAll().stream().map(Item::getId).toList();
+
+		ids.forEach(itemService::findById);
+		itemService.processItemsChunked(2);
+		assertTrue(ids.stream().allMatch(id -> "PROCESSED".equals(itemService.findById(id).orElseThrow().getStatus())));
+
+		itemService.bulkUpdateStatus("ARCHIVED", null);
+		assertTrue(ids.stream().allMatch(id -> "ARCHIVED".equals(itemService.findById(id).orElseThrow().getStatus())));
+
+		itemService.processItemsStreaming(item -> { });
+		assertTrue(ids.stream().allMatch(id -> "PROCESSED".equals(itemService.findById(id).orElseThrow().getStatus())));
+	}
+
+	// Streaming export
+	@Test
+	void exportAll_StreamsEveryItemInIdOrder() {
+		createItems(7);
+		List<Long> exported = new ArrayList<>();
+
+		long count = itemService.exportAll(item -> exported.add(item.getId()));
+
+		assertEquals(7, count);
+		assertEquals(itemRepository.findAll().stream().map(Item::getId).sorted().toList(), exported);
+	}
+
+	// Run-scoped results
+	@Test
+	void processItemsAsync_RepeatedRuns_ReturnOnlyTheirOwnResults() throws Exception {
+		createItems(5);
+
+		List<Item> first = itemService.processItemsAsync().get(30, TimeUnit.SECONDS);
+		List<Item> second = itemService.processItemsAsync().get(30, TimeUnit.SECONDS);
+
+		assertEquals(5, first.size());
+		assertEquals(5, second.size());
+	}
+
+	@Test
+	void processItemsAsync_ConcurrentRuns_AreIsolated() throws Exception {
+		createItems(20);
+		Set<Long> expectedIds = itemRepository.findAll().stream()
+				.map(Item::getId)
+				.collect(Collectors.toSet());
+
+		List<CompletableFuture<List<Item>>> runs = new ArrayList<>();
+		for (int i = 0; i < 8; i++) {
+			runs.add(itemService.processItemsAsync());
+		}
+
+		for (CompletableFuture<List<Item>> run : runs) {
+			List<Item> result = run.get(60, TimeUnit.SECONDS);
+			Set<Long> resultIds = result.stream().map(Item::getId).collect(Collectors.toSet());
+			assertEquals(expectedIds.size(), result.size(), "each run returns every item exactly once");
+			assertEquals(expectedIds, resultIds);
+		}
+	}
+
+	// Streaming processing
+	@Test
+	void processItemsStreaming_EmitsEveryItemOnce() {
+		createItems(5);
+		Set<Long> emitted = ConcurrentHashMap.newKeySet();
+
+		long count = itemService.processItemsStreaming(item -> emitted.add(item.getId()));
+
+		assertEquals(5, count);
+		assertEquals(5, emitted.size());
+	}
+
+	// Batch jobs
+	@Test
+	void startBatchJob_CompletesAndPagesResults() throws Exception {
+		createItems(4);
+
+		BatchJob job = itemService.startBatchJob();
+		job.getCompletion().get(30, TimeUnit.SECONDS);
+
+		BatchJobStatus status = job.toStatus();
+		assertEquals(BatchJob.State.COMPLETED, status.state());
+		assertEquals(4, status.total());
+		assertEquals(4, status.processed());
+		assertNull(status.etaSeconds());
+
+		List<Item> firstPage = itemService.findBatchJobResults(job, 0, 3);
+		List<Item> secondPage = itemService.findBatchJobResults(job, 1, 3);
+		assertEquals(3, firstPage.size());
+		assertEquals(1, secondPage.size());
+		assertTrue(firstPage.stream().allMatch(item -> "PROCESSED".equals(item.getStatus())));
+	}
+
+	@Test
+	void batchJobRegistry_EvictsFinishedJobsWhenFull() {
+		for (int i = 0; i < 150; i++) {
+			batchJobRegistry.register(0).finish(null);
+		}
+
+		assertTrue(batchJobRegistry.size() <= 100);
+	}
+
+	// Incremental batch jobs
+	@Test
+	void startIncrementalBatchJob_OnlyProcessesChangedItems() throws Exception {
+		createItems(5);
+
+		BatchJob firstRun = itemService.startIncrementalBatchJob();
+		firstRun.getCompletion().get(30, TimeUnit.SECONDS);
+		assertEquals(5, firstRun.toStatus().processed());
+
+		BatchJob idleRun = itemService.startIncrementalBatchJob();
+		idleRun.getCompletion().get(30, TimeUnit.SECONDS);
+		assertEquals(0, idleRun.toStatus().total());
+		assertEquals(0, idleRun.toStatus().processed());
+
+		Item changed = itemRepository.findAll().get(0);
+		changed.setStatus("NEW");
+		itemRepository.save(changed);
+
+		BatchJob changedRun = itemService.startIncrementalBatchJob();
+		changedRun.getCompletion().get(30, TimeUnit.SECONDS);
+		assertEquals(1, changedRun.toStatus().processed());
+		assertEquals(List.of(changed.getId()), changedRun.resultIds(0, 10));
+	}
+
+	@Test
+	void startIncrementalBatchJob_PicksUpItemsChangedDuringARun() throws Exception {
+		createItems(5);
+		Item edited = itemRepository.findAll().get(2);
+		doAnswer(invocation -> {
+			Object rows = realRepository().answer(invocation);
+			// A client write landing right after the run has written this item
+			itemService.update(edited.getId(), edited, null);
+			return rows;
+		}).when(itemRepository).markProcessed(eq(edited.getId()), any(), any(), any());
+
+		BatchJob firstRun = itemService.startIncrementalBatchJob();
+		firstRun.getCompletion().get(30, TimeUnit.SECONDS);
+		assertEquals(5, firstRun.toStatus().processed());
+
+		doAnswer(realRepository()).when(itemRepository).markProcessed(eq(edited.getId()), any(), any(), any());
+		BatchJob nextRun = itemService.startIncrementalBatchJob();
+		nextRun.getCompletion().get(30, TimeUnit.SECONDS);
+		assertEquals(List.of(edited.getId()), nextRun.resultIds(0, 10));
+	}
+
+	@Test
+	void startIncrementalBatchJob_RetriesItemsThatFailedInThePreviousRun() throws Exception {
+		createItems(3);
+		Long brokenId = itemRepository.findAll().get(0).getId();
+		doThrow(new IllegalStateException("downstream down"))
+				.when(itemRepository).markProcessed(eq(brokenId), any(), any(), any());
+
+		BatchJob failingRun = itemService.startIncrementalBatchJob();
+		failingRun.getCompletion().get(30, TimeUnit.SECONDS);
+		assertEquals(1, failingRun.toStatus().failed());
+		assertTrue(deadLetterRepository.existsById(brokenId));
+
+		doAnswer(realRepository()).when(itemRepository).markProcessed(eq(brokenId), any(), any(), any());
+		BatchJob nextRun = itemService.startIncrementalBatchJob();
+		nextRun.getCompletion().get(30, TimeUnit.SECONDS);
+		assertEquals(List.of(brokenId), nextRun.resultIds(0, 10));
+		assertFalse(deadLetterRepository.existsById(brokenId));
+	}
+
+	@Test
+	void incrementalQuery_UsesTheNeedsWorkIndex() {
+		String plan = jdbcTemplate.queryForObject(
+				"EXPLAIN SELECT id FROM item WHERE needs_work = TRUE AND id > 0 ORDER BY id", String.class);
+
+		assertTrue(plan.toUpperCase().contains("IDX_ITEM_NEEDS_WORK_ID"), plan);
+	}
+
+	@Test
+	void processItemsChunked_DoesNotClearAConcurrentChangeToAnUnchangedRow() throws Exception {
+		createItems(3);
+		itemService.processItemsChunked();
+		Item edited = itemRepository.findAll().get(1);
+		edited.setStatus("NEW");
+		CompletableFuture<ItemUpdate> concurrentPut = new CompletableFuture<>();
+		doAnswer(invocation -> {
+			// The rows were read as PROCESSED and are not flushed again; a PUT now has to wait
+			CompletableFuture.runAsync(() -> concurrentPut.complete(itemService.update(edited.getId(), edited, null)));
+			Thread.sleep(300);
+			assertFalse(concurrentPut.isDone());
+			return realRepository().answer(invocation);
+		}).when(itemRepository).clearNeedsWork(any());
+
+		itemService.processItemsChunked();
+		concurrentPut.get(10, TimeUnit.SECONDS);
+
+		assertTrue(itemRepository.findById(edited.getId()).orElseThrow().isNeedsWork());
+	}
+
+	// Bulk status updates
+	@Test
+	void bulkUpdateStatus_UpdatesEveryItemInChunks() {
+		createItems(10);
+
+		BulkUpdateReport report = itemService.bulkUpdateStatus("ARCHIVED", null);
+
+		assertEquals(10, report.updated());
+		assertEquals(3, report.chunks().size());
+		assertEquals(10, report.chunks().stream().mapToInt(BulkUpdateReport.ChunkUpdate::updated).sum());
+		assertTrue(itemRepository.findAll().stream().allMatch(item -> "ARCHIVED".equals(item.getStatus())));
+	}
+
+	@Test
+	void bulkUpdateStatus_WithSparseIds_SlicesByExistingRows() {
+		createItems(10);
+		jdbcTemplate.update("INSERT INTO item (id, name, status, email, version, last_modified, needs_work)"
+				+ " VALUES (1000000, 'Far', 'NEW', 'far@example.com', 0, CURRENT_TIMESTAMP, TRUE)");
+
+		BulkUpdateReport report = itemService.bulkUpdateStatus("ARCHIVED", null);
+
+		assertEquals(11, report.updated());
+		assertEquals(3, report.chunks().size());
+		assertEquals(1000000L, report.chunks().get(2).toId());
+		assertTrue(itemRepository.findAll().stream().allMatch(item -> "ARCHIVED".equals(item.getStatus())));
+	}
+
+	@Test
+	void bulkUpdateStatus_WithCurrentStatus_OnlyUpdatesMatchingItems() {
+		createItems(6);
+		Item done = itemRepository.findAll().get(0);
+		done.setStatus("PROCESSED");
+		itemRepository.save(done);
+
+		BulkUpdateReport report = itemService.bulkUpdateStatus("FAILED", "NEW");
+
+		assertEquals(5, report.updated());
+		assertEquals("PROCESSED", itemRepository.findById(done.getId()).orElseThrow().getStatus());
+	}
+
+	@Test
+	void bulkUpdateStatus_WithEmptyTable_UpdatesNothing() {
+		BulkUpdateReport report = itemService.bulkUpdateStatus("ARCHIVED", null);
+
+		assertEquals(0, report.updated());
+		assertTrue(report.chunks().isEmpty());
+	}
+
+	// Retries and dead letters
+	// The repository is an interface proxy, so the spy's default answer is what reaches the real bean
+	private Answer<?> realRepository() {
+		return mockingDetails(itemRepository).getMockCreationSettings().getDefaultAnswer();
+	}
+
+	@Test
+	void batchJob_RetriesTransientFailures() throws Exception {
+		createItems(3);
+		Long flakyId = itemRepository.findAll().get(0).getId();
+		doThrow(new IllegalStateException("transient"))
+				.doThrow(new IllegalStateException("transient"))
+				.doAnswer(realRepository())
+				.when(itemRepository).markProcessed(eq(flakyId), any(), any(), any());
+
+		BatchJob job = itemService.startBatchJob();
+		job.getCompletion().get(30, TimeUnit.SECONDS);
+
+		BatchJobStatus status = job.toStatus();
+		assertEquals(BatchJob.State.COMPLETED, status.state());
+		assertEquals(3, status.processed());
+		assertEquals(2, status.retried());
+		assertEquals(0, deadLetterRepository.count());
+	}
+
+	@Test
+	void batchJob_DeadLettersPermanentFailuresAndRedrivesThem() throws Exception {
+		createItems(4);
+		Long brokenId = itemRepository.findAll().get(1).getId();
+		doThrow(new IllegalStateException("downstream down"))
+				.when(itemRepository).markProcessed(eq(brokenId), any(), any(), any());
+
+		BatchJob job = itemService.startBatchJob();
+		job.getCompletion().get(30, TimeUnit.SECONDS);
+
+		BatchJobStatus status = job.toStatus();
+		assertEquals(BatchJob.State.PARTIALLY_COMPLETED, status.state());
+		assertEquals(3, status.processed());
+		assertEquals(1, status.failed());
+		DeadLetter deadLetter = deadLetterRepository.findById(brokenId).orElseThrow();
+		assertEquals(3, deadLetter.getAttempts());
+		assertTrue(deadLetter.getError().contains("downstream down"));
+
+		doAnswer(realRepository()).when(itemRepository).markProcessed(eq(brokenId), any(), any(), any());
+		BatchJob redrive = itemService.startRedriveJob();
+		redrive.getCompletion().get(30, TimeUnit.SECONDS);
+
+		assertEquals(1, redrive.toStatus().total());
+		assertEquals(1, redrive.toStatus().processed());
+		assertEquals(0, deadLetterRepository.count());
+		assertEquals("PROCESSED", itemRepository.findById(brokenId).orElseThrow().getStatus());
+	}
+
+	@Test
+	void successfulFullRuns_ClearDeadLettersOfEarlierFailures() throws Exception {
+		createItems(4);
+		List<Long> ids = itemRepository.findAll().stream().map(Item::getId).toList();
+		doThrow(new IllegalStateException("downstream down"))
+				.when(itemRepository).markProcessed(eq(ids.get(0)), any(), any(), any());
+		itemService.startBatchJob().getCompletion().get(30, TimeUnit.SECONDS);
+		assertTrue(deadLetterRepository.existsById(ids.get(0)));
+
+		doAnswer(realRepository()).when(itemRepository).markProcessed(eq(ids.get(0)), any(), any(), any());
+		itemService.startBatchJob().getCompletion().get(30, TimeUnit.SECONDS);
+		assertEquals(0, deadLetterRepository.count());
+
+		deadLetterRepository.save(new DeadLetter(ids.get(1), "earlier failure", 3, Instant.now()));
+		itemService.processItemsChunked();
+		assertEquals(0, deadLetterRepository.count());
+	}
+
+	// Metrics
+	@Test
+	void batchJob_RecordsPhaseTimersAndOutcomeCounters() throws Exception {
+		createItems(3);
+		Timer saveTimer = meterRegistry.get("items.batch.phase").tag("phase", "save").timer();
+		long savesBefore = saveTimer.count();
+		double processedBefore = meterRegistry.get("items.batch.items").tag("outcome", "processed").counter().count();
+
+		BatchJob job = itemService.startBatchJob();
+		job.getCompletion().get(30, TimeUnit.SECONDS);
+
+		assertEquals(savesBefore + 3, saveTimer.count());
+		assertEquals(processedBefore + 3,
+				meterRegistry.get("items.batch.items").tag("outcome", "processed").counter().count());
+		assertEquals(0, meterRegistry.get("items.batch.executor.active").gauge().value());
+		assertEquals(0, meterRegistry.get("items.batch.executor.queued").gauge().value());
+	}
+
+	@Test
+	void batchJob_WithAdaptiveConcurrency_ProcessesEveryItem() throws Exception {
+		createItems(6);
+		batchProperties.setAdaptiveConcurrencyEnabled(true);
+		try {
+			BatchJob job = itemService.startBatchJob();
+			job.getCompletion().get(30, TimeUnit.SECONDS);
+
+			assertEquals(6, job.toStatus().processed());
+			assertEquals(0, meterRegistry.get("items.batch.limiter.in-flight").gauge().value());
+		} finally {
+			batchProperties.setAdaptiveConcurrencyEnabled(false);
+		}
+	}
+
+	// Optimistic locking
+	@Test
+	void save_WithStaleVersion_IsRejected() {
+		createItems(1);
+		Item first = itemRepository.findAll().get(0);
+		Item second = itemRepository.findById(first.getId()).orElseThrow();
+
+		first.setName("first writer");
+		itemService.save(first);
+		second.setName("second writer");
+
+		assertThrows(ObjectOptimisticLockingFailureException.class, () -> itemService.save(second));
+		assertEquals("first writer", itemRepository.findById(first.getId()).orElseThrow().getName());
+	}
+
+	@Test
+	void batchJob_RetriesItemsThatLoseAnUpdateRace() throws Exception {
+		createItems(2);
+		Long contendedId = itemRepository.findAll().get(0).getId();
+		doThrow(new ObjectOptimisticLockingFailureException(Item.class, contendedId))
+				.doAnswer(realRepository())
+				.when(itemRepository).markProcessed(eq(contendedId), any(), any(), any());
+		double conflictsBefore = meterRegistry.get("items.update.conflicts").tag("path", "batch").counter().count();
+
+		BatchJob job = itemService.startBatchJob();
+		job.getCompletion().get(30, TimeUnit.SECONDS);
+
+		assertEquals(BatchJob.State.COMPLETED, job.toStatus().state());
+		assertEquals(0, job.toStatus().retried());
+		assertEquals(conflictsBefore + 1,
+				meterRegistry.get("items.update.conflicts").tag("path", "batch").counter().count());
+	}
+}
@@ -0,0 +1,91 @@
+package com.siemens.internship;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.json.JsonTest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Payload size and encode/decode time of JSON, CBOR and Smile for one item and for a large list.
+ * Excluded from the default build, run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@JsonTest
+class ItemSerializationBenchmarkTests {
+
+	private static final int LIST_SIZE = 10_000;
+	private static final int WARMUP_ROUNDS = 200;
+	private static final int MEASURED_ROUNDS = 500;
+
+	// Boot's auto-configured builder, a new instance per call, the one BinaryFormatConfig builds from
+	@Autowired
+	private ObjectProvider<Jackson2ObjectMapperBuilder> builders;
+
+	@Test
+	void compareFormats() throws Exception {
+		List<Item> list = IntStream.range(0, LIST_SIZE).mapToObj(ItemSerializationBenchmarkTests::item).toList();
+		Item single = list.get(0);
+
+		System.out.printf("%-6s %-6s %10s %12s %12s%n", "format", "shape", "bytes", "encode us", "decode us");
+		for (String format : List.of("json", "cbor", "smile")) {
+			ObjectMapper mapper = mapper(format);
+			Result one = measure(mapper, single, Item.class, MEASURED_ROUNDS);
+			Result many = measure(mapper, list, Item[].class, MEASURED_ROUNDS / 50);
+			System.out.printf("%-6s %-6s %10d %12.1f %12.1f%n", format, "single", one.bytes(), one.encodeMicros(), one.decodeMicros());
+			System.out.printf("%-6s %-6s %10d %12.1f %12.1f%n", format, "list", many.bytes(), many.encodeMicros(), many.decodeMicros());
+
+			if (!format.equals("json")) {
+				assertTrue(many.bytes() < measure(mapper("json"), list, Item[].class, 1).bytes());
+			}
+		}
+	}
+
+	private ObjectMapper mapper(String format) {
+		Jackson2ObjectMapperBuilder builder = builders.getObject();
+		return switch (format) {
+			case "cbor" -> builder.factory(new CBORFactory()).build();
+			case "smile" -> builder.factory(new SmileFactory()).build();
+			default -> builder.build();
+		};
+	}
+
+	private static Result measure(ObjectMapper mapper, Object value, Class<?> type, int rounds) throws Exception {
+		byte[] bytes = mapper.writeValueAsBytes(value);
+		for (int i = 0; i < Math.min(WARMUP_ROUNDS, rounds); i++) {
+			mapper.readValue(mapper.writeValueAsBytes(value), type);
+		}
+
+		long start = System.nanoTime();
+		for (int i = 0; i < rounds; i++) {
+			bytes = mapper.writeValueAsBytes(value);
+		}
+		long encodeNanos = System.nanoTime() - start;
+
+		start = System.nanoTime();
+		for (int i = 0; i < rounds; i++) {
+			assertNotNull(mapper.readValue(bytes, type));
+		}
+		long decodeNanos = System.nanoTime() - start;
+
+		return new Result(bytes.length, encodeNanos / 1_000.0 / rounds, decodeNanos / 1_000.0 / rounds);
+	}
+
+	private static Item item(int i) {
+		return new Item((long) i, "Item " + i, "Description of item " + i, "NEW",
+				"item" + i + "@example.com", 0L, Instant.now(), false);
+	}
+
+	private record Result(int bytes, double encodeMicros, double decodeMicros) {
+	}
+}
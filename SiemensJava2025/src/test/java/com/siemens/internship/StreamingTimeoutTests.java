@@ -0,0 +1,92 @@
+package com.siemens.internship;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+/**
+ * Runs the NDJSON streaming endpoints on a real server for longer than the servlet container's
+ * default async timeout of 30 seconds, which MockMvc does not enforce. Takes over a minute, so
+ * it is excluded from the default build, run with {@code mvn test -Pslow}.
+ */
+@Tag("slow")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class StreamingTimeoutTests {
+
+	// Paced so the stream outlives the container default
+	private static final int LINES = 35;
+	private static final long LINE_INTERVAL_MILLIS = 1_000;
+
+	@LocalServerPort
+	private int port;
+
+	@SpyBean
+	private ItemService itemService;
+
+	@Test
+	void processItemsStreaming_OutlivesDefaultAsyncTimeout() throws Exception {
+		doAnswer(invocation -> {
+			BatchListener listener = invocation.getArgument(0);
+			for (long i = 1; i <= LINES; i++) {
+				Thread.sleep(LINE_INTERVAL_MILLIS);
+				listener.onProcessed(item(i));
+			}
+			return (long) LINES;
+		}).when(itemService).processItemsStreaming(any(BatchListener.class));
+
+		List<String> lines = send(HttpRequest.newBuilder(uri("/api/items/batch-process/stream"))
+				.POST(HttpRequest.BodyPublishers.noBody()));
+
+		assertEquals(LINES, lines.size());
+		assertTrue(lines.get(LINES - 1).contains("\"id\":" + LINES));
+	}
+
+	@Test
+	void exportItems_OutlivesDefaultAsyncTimeout() throws Exception {
+		doAnswer(invocation -> {
+			Consumer<Item> sink = invocation.getArgument(0);
+			for (long i = 1; i <= LINES; i++) {
+				Thread.sleep(LINE_INTERVAL_MILLIS);
+				sink.accept(item(i));
+			}
+			return (long) LINES;
+		}).when(itemService).exportAll(any());
+
+		List<String> lines = send(HttpRequest.newBuilder(uri("/api/items/export")).GET());
+
+		assertEquals(LINES, lines.size());
+		assertTrue(lines.get(LINES - 1).contains("\"id\":" + LINES));
+	}
+
+	private List<String> send(HttpRequest.Builder request) throws Exception {
+		HttpResponse<String> response = HttpClient.newHttpClient()
+				.send(request.build(), HttpResponse.BodyHandlers.ofString());
+		assertEquals(200, response.statusCode());
+		return response.body().lines().toList();
+	}
+
+	private URI uri(String path) {
+		return URI.create("http://localhost:" + port + path);
+	}
+
+	private static Item item(long id) {
+		Item item = new Item();
+		item.setId(id);
+		item.setEmail("item" + id + "@example.com");
+		item.setStatus("PROCESSED");
+		return item;
+	}
+}